@@ -0,0 +1,47 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.JpaHibernateApplication;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.service.ProductService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against embedded H2 for benchmarks and seeds a catalog whose size comes from
+ * {@code -Dbenchmark.datasetSize} (the profile passes it on to the forked benchmark JVMs).
+ */
+final class BenchmarkApplication {
+    static final int DATASET_SIZE = Integer.getInteger("benchmark.datasetSize", 10_000);
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        String[] defaults = {
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=warn"
+        };
+
+        return new SpringApplicationBuilder(JpaHibernateApplication.class)
+                .profiles("test")
+                .run(Stream.concat(Stream.of(defaults), Stream.of(args)).toArray(String[]::new));
+    }
+
+    static List<Product> seed(ConfigurableApplicationContext context, int size) {
+        List<ProductDto> dtoList = IntStream.range(0, size)
+                .mapToObj(i -> new ProductDto("Seed product " + i, 1 + (i % 1000) / 10.0))
+                .toList();
+
+        List<Product> products = new ArrayList<>(size);
+        context.getBean(ProductService.class).saveAll(dtoList).forEach(products::add);
+        return products;
+    }
+}
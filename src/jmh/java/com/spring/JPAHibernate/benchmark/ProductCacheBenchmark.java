@@ -0,0 +1,111 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.dto.PartialProductDto;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.service.ProductQueryService;
+import com.spring.JPAHibernate.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-heavy catalog traffic with the second-level and query caches on and off. Four threads read a hot
+ * set of {@code hotSet} products nine times out of ten and the whole catalog otherwise, and one call in
+ * {@code writeEvery} is a price update so invalidation stays part of the picture (updates racing on the same
+ * hot product lose on the version column and are counted as conflicts). Throughput and sampled latency come
+ * from JMH; the L2 and query cache hit ratios of the run are printed at tear-down.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class ProductCacheBenchmark {
+    @Param({"on", "off"})
+    public String cache;
+
+    @Param({"1000"})
+    public int hotSet;
+
+    @Param({"20"})
+    public int writeEvery;
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private ProductQueryService queries;
+    private Statistics statistics;
+    private List<Product> seeded;
+    private final LongAdder conflicts = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        boolean enabled = cache.equals("on");
+        context = BenchmarkApplication.start(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + enabled,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + enabled);
+        service = context.getBean(ProductService.class);
+        queries = context.getBean(ProductQueryService.class);
+        seeded = BenchmarkApplication.seed(context, BenchmarkApplication.DATASET_SIZE);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%ncache=%s L2 hit ratio %.3f (%d hits, %d misses), query cache hit ratio %.3f (%d hits, %d misses), %d write conflicts%n",
+                cache,
+                ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), conflicts.sum());
+        context.close();
+    }
+
+    @Benchmark
+    public Product findById() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Product target = seeded.get(random.nextInt(random.nextInt(10) == 0 ? seeded.size() : hotSet));
+
+        if (random.nextInt(writeEvery) == 0) {
+            PartialProductDto patch = new PartialProductDto();
+            patch.setPrice(1 + random.nextInt(10_000) / 100.0);
+            try {
+                return service.updateProduct(target.getId(), patch);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                return null;
+            }
+        }
+        return service.findById(target.getId());
+    }
+
+    // A hundred popular price bands, so repeated pages can be answered by the query cache
+    @Benchmark
+    public Window<ProductView> findByPriceBetween() {
+        double minPrice = 1 + ThreadLocalRandom.current().nextInt(100);
+        return queries.findByPriceBetween(minPrice, minPrice + 1, null, null);
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : hits / (double) (hits + misses);
+    }
+}
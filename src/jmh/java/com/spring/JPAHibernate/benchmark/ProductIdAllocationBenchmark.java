@@ -0,0 +1,89 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput by writer threads, one product per transaction, with ids from the hibernate_sequences
+ * table as before ({@code allocator=table}) and from the pooled-lo {@code products_seq} ({@code allocator=sequence}).
+ * Flat throughput across thread counts means id allocation serializes the writers. The table generator
+ * borrows a second connection per block, so the pool is sized for two per writer; the second-level cache
+ * is off so both entities pay the same per insert.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ProductIdAllocationBenchmark {
+    @Param({"table", "sequence"})
+    public String allocator;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--spring.datasource.hikari.maximum-pool-size=32",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object insert1Writer() {
+        return insert();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object insert4Writers() {
+        return insert();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object insert16Writers() {
+        return insert();
+    }
+
+    private Object insert() {
+        String name = "Inserted product " + sequence.incrementAndGet();
+
+        return transaction.execute(status -> {
+            Object product = allocator.equals("table") ? new TableIdProduct(name, 9.99) : newProduct(name);
+            entityManager.persist(product);
+            return product;
+        });
+    }
+
+    private static Product newProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(9.99);
+        return product;
+    }
+}
@@ -0,0 +1,57 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serializing a list response the way the controllers do, for entities and for {@link ProductView} rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+    @Param({"100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Product> products;
+    private List<ProductView> views;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime now = LocalDateTime.now();
+        products = LongStream.range(0, size)
+                .mapToObj(i -> new Product(i, "Product " + i, 1 + i / 10.0, now, now, 0L))
+                .toList();
+        views = products.stream()
+                .map(p -> new ProductView(p.getId(), p.getName(), p.getPrice(), p.getCreatedAt(), p.getUpdatedAt(), p.getVersion()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws Exception {
+        return mapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeProductViews() throws Exception {
+        return mapper.writeValueAsBytes(views);
+    }
+}
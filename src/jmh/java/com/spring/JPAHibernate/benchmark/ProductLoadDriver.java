@@ -0,0 +1,161 @@
+package com.spring.JPAHibernate.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop load test of the query endpoint: boots the application on H2 once per execution mode and
+ * drives it with N concurrent clients, each sending its next request as soon as the previous one returns.
+ * After a discarded warm-up, prints throughput, p50/p99 latency and error counts (non-2xx responses
+ * included) per (mode, clients).
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java@load -Dexec.args="clients=100,1000,10000 seconds=10 products=10000"
+ * </pre>
+ */
+public class ProductLoadDriver {
+    private enum Mode {
+        PLATFORM("false", "false"),
+        VIRTUAL_UNBOUNDED("true", "false"),
+        VIRTUAL_PERMITS("true", "true");
+
+        private final String virtualThreads;
+        private final String permits;
+
+        Mode(String virtualThreads, String permits) {
+            this.virtualThreads = virtualThreads;
+            this.permits = permits;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream(option(args, "clients", "100,1000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(option(args, "seconds", "10")));
+        int products = Integer.parseInt(option(args, "products", "10000"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(option(args, "warmup", "5")));
+
+        System.out.printf("%-18s %7s %10s %10s %9s %9s %8s%n", "mode", "clients", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+
+        for (Mode mode : Mode.values()) {
+            try (ConfigurableApplicationContext context = start(mode)) {
+                BenchmarkApplication.seed(context, products);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                drive(port, clientCounts[0], warmup);
+
+                for (int clients : clientCounts) {
+                    run(mode, port, clients, duration);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Mode mode) {
+        return BenchmarkApplication.start(
+                "--spring.main.web-application-type=servlet",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + mode.virtualThreads,
+                "--products.db-permits.enabled=" + mode.permits,
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000");
+    }
+
+    private static void run(Mode mode, int port, int clients, Duration duration) throws InterruptedException {
+        Result result = drive(port, clients, duration);
+        long[] all = result.latencies();
+
+        System.out.printf("%-18s %7d %10d %10.0f %9.2f %9.2f %8d%n", mode, clients, all.length,
+                all.length / (double) duration.toSeconds(), percentile(all, 0.50), percentile(all, 0.99), result.errors());
+    }
+
+    private static Result drive(int port, int clients, Duration duration) throws InterruptedException {
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build()) {
+
+            List<Recorder> recorders = IntStream.range(0, clients).mapToObj(i -> new Recorder()).toList();
+
+            for (Recorder recorder : recorders) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        double minPrice = ThreadLocalRandom.current().nextInt(1, 100);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                        + "/products/query?minPrice=" + minPrice + "&maxPrice=" + (minPrice + 1) + "&limit=20"))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 300) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.add(System.nanoTime() - start);
+                    }
+                    return null;
+                });
+            }
+
+            executor.shutdown();
+            executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+            recorders.forEach(recorder -> latencies.add(recorder.values()));
+        }
+
+        return new Result(latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray(), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(name + "="))
+                .map(arg -> arg.substring(name.length() + 1))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+
+    private static final class Recorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.service.ProductNameLookup;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Uniqueness check of {@code names} candidate names, every other one already taken, against a seeded H2
+ * catalog. {@code approach=entities} is the previous check: one IN query loading a managed {@link Product}
+ * per collision (at 100k names the padded IN list exceeds H2's parameter limit and the run fails).
+ * {@code in} and {@code array} are {@link ProductNameLookup} with that strategy and its cache emptied before
+ * every call, so each run reads only names, chunk by chunk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ProductNameCheckBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int names;
+
+    @Param({"entities", "in", "array"})
+    public String approach;
+
+    private ConfigurableApplicationContext context;
+    private ProductNameLookup lookup;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private List<String> candidates;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--products.name-check.strategy=" + (approach.equals("array") ? "array" : "in"));
+        lookup = context.getBean(ProductNameLookup.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        BenchmarkApplication.seed(context, names / 2);
+        candidates = IntStream.range(0, names)
+                .mapToObj(i -> i % 2 == 0 ? "Seed product " + i / 2 : "Candidate product " + i)
+                .toList();
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyCache() {
+        lookup.evictAll();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<String> findExistingNames() {
+        if (!approach.equals("entities")) {
+            return lookup.findExistingNames(candidates);
+        }
+
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("select p from products p where p.name in :names", Product.class)
+                .setParameter("names", candidates)
+                .getResultList().stream()
+                .map(Product::getName)
+                .toList());
+    }
+}
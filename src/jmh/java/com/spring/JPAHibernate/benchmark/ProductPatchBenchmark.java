@@ -0,0 +1,60 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spring.JPAHibernate.dto.PartialProductDto;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.mapping.PatchMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying a PATCH body to a product: the former ObjectMapper copy + JSON string round trip against
+ * {@link PatchMerger}. Run with the gc profiler (the profile default) for bytes allocated per patch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ProductPatchBenchmark {
+    private static final PatchMerger<PartialProductDto, Product> PATCH = PatchMerger.of(PartialProductDto.class, Product.class);
+
+    private ObjectMapper mapper;
+    private PartialProductDto patch;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        patch = new PartialProductDto();
+        patch.setName("Renamed product");
+
+        product = new Product(1L, "Product", 12.5, LocalDateTime.now(), LocalDateTime.now(), 0L);
+    }
+
+    @Benchmark
+    public Product jsonRoundTrip() throws Exception {
+        ObjectMapper patchMapper = mapper.copy();
+
+        patchMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        patchMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        String json = patchMapper.writeValueAsString(patch);
+        return patchMapper.readerForUpdating(product).readValue(json);
+    }
+
+    @Benchmark
+    public Product patchMerger() {
+        return PATCH.merge(patch, product);
+    }
+}
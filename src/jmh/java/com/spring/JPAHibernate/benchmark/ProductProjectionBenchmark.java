@@ -0,0 +1,78 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One list page of {@code rows} products read three ways: managed entities in a read-write transaction
+ * (the list endpoints before {@link ProductView}), entities with the read-only hint in a read-only
+ * transaction, and {@code ProductView} constructor rows. Caches are off so every call hydrates from H2.
+ * Compare {@code gc.alloc.rate.norm} (the profile always runs {@code -prof gc}) divided by {@code rows}
+ * for the allocation per returned row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductProjectionBenchmark {
+    @Param({"100", "1000"})
+    public int rows;
+
+    @Param({"entity", "readOnlyEntity", "view"})
+    public String approach;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        entityManager = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(!approach.equals("entity"));
+
+        BenchmarkApplication.seed(context, BenchmarkApplication.DATASET_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<?> listPage() {
+        return transaction.execute(status -> switch (approach) {
+            case "view" -> entityManager.createQuery("""
+                            select new com.spring.JPAHibernate.dto.ProductView(p.id, p.name, p.price, p.createdAt, p.updatedAt, p.version)
+                            from products p order by p.id""", ProductView.class)
+                    .setMaxResults(rows)
+                    .getResultList();
+            case "readOnlyEntity" -> entityManager.createQuery("select p from products p order by p.id", Product.class)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setMaxResults(rows)
+                    .getResultList();
+            default -> entityManager.createQuery("select p from products p order by p.id", Product.class)
+                    .setMaxResults(rows)
+                    .getResultList();
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.dto.ProductFilter;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.service.ProductQueryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page (default limit) of every {@link ProductQueryService} finder on a seeded H2 catalog.
+ * Parameters are random per call so the query cache does not answer in place of the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductQueryBenchmark {
+    private ConfigurableApplicationContext context;
+    private ProductQueryService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        service = context.getBean(ProductQueryService.class);
+        BenchmarkApplication.seed(context, BenchmarkApplication.DATASET_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Window<ProductView> findByPriceGreaterThan() {
+        return service.findByPriceGreaterThan(randomPrice(), null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findByPriceBetween() {
+        double minPrice = randomPrice();
+        return service.findByPriceBetween(minPrice, minPrice + 10, null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findAllOrderByPrice() {
+        return service.findAllOrderBy("price", ThreadLocalRandom.current().nextBoolean(), null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findByNameContaining() {
+        return service.findByNameContaining("product " + ThreadLocalRandom.current().nextInt(1000), null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findAllFiltered() {
+        ProductFilter filter = new ProductFilter();
+        filter.setMinPrice(randomPrice());
+        filter.setName("product");
+        filter.setSort(List.of("-price"));
+
+        return service.findAll(filter, null, null);
+    }
+
+    @Benchmark
+    public List<ProductView> search() {
+        return service.search("product " + ThreadLocalRandom.current().nextInt(1000), null);
+    }
+
+    @Benchmark
+    public List<String> autocomplete() {
+        return service.autocomplete("seed product " + ThreadLocalRandom.current().nextInt(100), 10);
+    }
+
+    private static double randomPrice() {
+        return 1 + ThreadLocalRandom.current().nextDouble(100);
+    }
+}
@@ -0,0 +1,70 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.service.ProductQueryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Window;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The price range and ordered finders of {@link ProductQueryService} answered by JPA against H2
+ * ({@code readModel=false}) and by the in-memory {@code ProductReadModel} ({@code readModel=true}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductReadModelBenchmark {
+    @Param({"false", "true"})
+    public boolean readModel;
+
+    private ConfigurableApplicationContext context;
+    private ProductQueryService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("--products.read-model.enabled=" + readModel);
+        service = context.getBean(ProductQueryService.class);
+        BenchmarkApplication.seed(context, BenchmarkApplication.DATASET_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Window<ProductView> findByPriceGreaterThan() {
+        return service.findByPriceGreaterThan(randomPrice(), null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findByPriceBetween() {
+        double minPrice = randomPrice();
+        return service.findByPriceBetween(minPrice, minPrice + 1, null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findAllOrderByPrice() {
+        return service.findAllOrderBy("price", ThreadLocalRandom.current().nextBoolean(), null, null);
+    }
+
+    @Benchmark
+    public Window<ProductView> findAllOrderByCreatedAt() {
+        return service.findAllOrderBy("createdAt", ThreadLocalRandom.current().nextBoolean(), null, null);
+    }
+
+    private static double randomPrice() {
+        return 1 + ThreadLocalRandom.current().nextDouble(100);
+    }
+}
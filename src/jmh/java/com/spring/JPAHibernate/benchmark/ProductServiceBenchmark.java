@@ -0,0 +1,77 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.dto.PartialProductDto;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Write paths of {@link ProductService} on a seeded H2 catalog. Every save uses a fresh name, so the
+ * table grows during the run as it would under real inserts. {@code saveAll} is timed per batch of
+ * {@code batchSize} products.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+    @Param({"100"})
+    public int batchSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private List<Product> seeded;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        service = context.getBean(ProductService.class);
+        seeded = BenchmarkApplication.seed(context, BenchmarkApplication.DATASET_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product save() {
+        return service.save(new ProductDto("Saved product " + sequence.incrementAndGet(), 9.99));
+    }
+
+    @Benchmark
+    public Iterable<Product> saveAll() {
+        long first = sequence.getAndAdd(batchSize);
+        List<ProductDto> dtoList = IntStream.range(0, batchSize)
+                .mapToObj(i -> new ProductDto("Batch product " + (first + i), 9.99))
+                .toList();
+
+        return service.saveAll(dtoList);
+    }
+
+    @Benchmark
+    public Product updateProduct() {
+        Product target = seeded.get(ThreadLocalRandom.current().nextInt(seeded.size()));
+        PartialProductDto patch = new PartialProductDto();
+        patch.setPrice(1 + ThreadLocalRandom.current().nextInt(10_000) / 100.0);
+
+        return service.updateProduct(target.getId(), patch);
+    }
+}
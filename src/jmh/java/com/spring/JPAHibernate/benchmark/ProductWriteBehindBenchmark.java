@@ -0,0 +1,95 @@
+package com.spring.JPAHibernate.benchmark;
+
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.WriteStatus;
+import com.spring.JPAHibernate.service.ProductService;
+import com.spring.JPAHibernate.writebehind.ProductWriteBehindQueue;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Products stored per second by four concurrent writers, each sending {@value #WRITES} creates and then
+ * waiting until the last one is in the database. {@code approach=save} commits every create on its own;
+ * {@code writeBehind} journals and fsyncs each create, then lets the single writer thread commit whatever
+ * queued up as one batch, so throughput is bounded by the batch commit rate rather than the commit rate.
+ * Database transactions per stored product are printed at tear-down.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class ProductWriteBehindBenchmark {
+    private static final int WRITES = 200;
+
+    @Param({"save", "writeBehind"})
+    public String approach;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Path journal;
+    private ConfigurableApplicationContext context;
+    private ProductService service;
+    private ProductWriteBehindQueue queue;
+    private Statistics statistics;
+
+    @Setup
+    public void setUp() throws IOException {
+        journal = Files.createTempFile("products-write-behind", ".journal");
+        context = BenchmarkApplication.start(
+                "--products.write-behind.enabled=true",
+                "--products.write-behind.journal=" + journal);
+        service = context.getBean(ProductService.class);
+        queue = context.getBean(ProductWriteBehindQueue.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.printf("%napproach=%s %.3f transactions per stored product%n",
+                approach, statistics.getTransactionCount() / (double) sequence.get());
+        context.close();
+        Files.deleteIfExists(journal);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WRITES)
+    public void create() throws InterruptedException {
+        long first = sequence.getAndAdd(WRITES);
+
+        if (approach.equals("save")) {
+            for (int i = 0; i < WRITES; i++) {
+                service.save(new ProductDto("Written product " + (first + i), 9.99));
+            }
+            return;
+        }
+
+        long last = 0;
+        for (int i = 0; i < WRITES; i++) {
+            last = queue.enqueue(new ProductDto("Written product " + (first + i), 9.99)).ticket();
+        }
+        // One writer drains the queue in order, so the last ticket landing means all of them have
+        while (queue.status(last).map(WriteStatus::state).orElseThrow() == WriteStatus.State.PENDING) {
+            Thread.sleep(1);
+        }
+    }
+}
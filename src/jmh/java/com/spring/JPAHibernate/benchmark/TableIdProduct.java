@@ -0,0 +1,57 @@
+package com.spring.JPAHibernate.benchmark;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The product mapping with ids from the hibernate_sequences table, as before the pooled-lo sequence, and
+ * otherwise the same columns and indexes. Only on the benchmark classpath, as the baseline of
+ * {@link ProductIdAllocationBenchmark}.
+ */
+@Entity(name = "table_id_products")
+@Table(name = "table_id_products",
+        indexes = {
+                @Index(name = "idx_table_id_products_price_id", columnList = "price, id"),
+                @Index(name = "idx_table_id_products_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_table_id_products_updated_at_id", columnList = "updated_at, id")
+        })
+@Data
+@NoArgsConstructor
+public class TableIdProduct {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE)
+    private Long id;
+
+    @Column(name = "name", nullable = false, unique = true)
+    private String name;
+
+    @Column(name = "price", nullable = false)
+    private Double price;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    TableIdProduct(String name, Double price) {
+        this.name = name;
+        this.price = price;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+}
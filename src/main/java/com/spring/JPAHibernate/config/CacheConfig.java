@@ -0,0 +1,23 @@
+package com.spring.JPAHibernate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCT_NAMES = "productNames";
+
+    // Puts and evictions issued inside a transaction are applied only once it commits
+    @Bean
+    public CacheManager cacheManager(@Value("${products.cache.spec:maximumSize=10000,expireAfterWrite=10m}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCT_NAMES);
+        cacheManager.setCacheSpecification(spec);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,74 @@
+package com.spring.JPAHibernate.config;
+
+import com.spring.JPAHibernate.datasource.ReadYourWritesTracker;
+import com.spring.JPAHibernate.datasource.ReplicaDataSource;
+import com.spring.JPAHibernate.datasource.ReplicaRoutingProperties;
+import com.spring.JPAHibernate.datasource.ReplicaSelector;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to the replica pools and everything else to the primary. The lazy proxy
+ * defers fetching the physical connection until the first statement, by which time the transaction
+ * manager has marked it read-only, and picks the target from that flag.
+ */
+@Configuration
+@ConditionalOnProperty(name = "products.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class DataSourceRoutingConfig {
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow(), properties.getReadYourWritesClientHeader());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaRoutingProperties properties,
+                                               ObjectProvider<ReplicaSelector> selector, ReadYourWritesTracker readYourWrites) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+
+        return new ReplicaDataSource(primaryDataSource, replicas,
+                selector.getIfAvailable(() -> ReplicaSelector.named(properties.getLoadBalancer())),
+                readYourWrites, properties.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
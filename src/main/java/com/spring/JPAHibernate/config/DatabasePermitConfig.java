@@ -0,0 +1,35 @@
+package com.spring.JPAHibernate.config;
+
+import com.spring.JPAHibernate.datasource.PermitDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Bounds concurrent connection use to as many permits as there are pooled connections. With virtual
+ * threads there is no worker pool to bound concurrency, so without it thousands of callers would queue
+ * inside Hikari; here they wait in FIFO order and get a 503 once the acquire timeout passes. The permit is
+ * taken around the application's data source, so only code that borrows a connection competes for one.
+ * On by default in virtual-thread mode.
+ */
+@Configuration
+@ConditionalOnExpression("${products.db-permits.enabled:${spring.threads.virtual.enabled:false}}")
+public class DatabasePermitConfig {
+    @Bean
+    public static BeanPostProcessor databasePermits(@Value("${products.db-permits.permits:10}") int permits,
+                                                    @Value("${products.db-permits.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return beanName.equals("dataSource") && bean instanceof DataSource dataSource
+                        ? new PermitDataSource(dataSource, permits, acquireTimeout)
+                        : bean;
+            }
+        };
+    }
+}
@@ -1,36 +1,91 @@
 package com.spring.JPAHibernate.controller;
 
+import com.spring.JPAHibernate.dto.ChunkResult;
 import com.spring.JPAHibernate.dto.PartialProductDto;
+import com.spring.JPAHibernate.dto.ProductChanges;
 import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductUpdateDto;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.dto.WriteStatus;
 import com.spring.JPAHibernate.entity.Product;
-import com.spring.JPAHibernate.exception.ProductUpdateException;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
+import com.spring.JPAHibernate.service.ProductExportService;
+import com.spring.JPAHibernate.service.ProductIngestService;
 import com.spring.JPAHibernate.service.ProductService;
+import com.spring.JPAHibernate.service.ProductSyncService;
+import com.spring.JPAHibernate.writebehind.ProductWriteBehindQueue;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/products")
 @Validated
 public class ProductController {
     private final ProductService service;
+    private final ProductIngestService ingestService;
+    private final ProductExportService exportService;
+    private final ProductSyncService syncService;
+    private final KeysetPaging paging;
+    private final ProductWriteBehindQueue writeBehind;
 
     @Autowired
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, ProductIngestService ingestService,
+                             ProductExportService exportService, ProductSyncService syncService, KeysetPaging paging,
+                             ObjectProvider<ProductWriteBehindQueue> writeBehind) {
         this.service = service;
+        this.ingestService = ingestService;
+        this.exportService = exportService;
+        this.syncService = syncService;
+        this.paging = paging;
+        this.writeBehind = writeBehind.getIfAvailable();
     }
 
     @PostMapping
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody ProductDto productDto){
+    public ResponseEntity<?> createProduct(@Valid @RequestBody ProductDto productDto){
+        if (writeBehind != null) {
+            WriteStatus status = writeBehind.enqueue(productDto);
+            return ResponseEntity.accepted().location(URI.create("/products/writes/" + status.ticket())).body(status);
+        }
+
         Product product = service.save(productDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(product);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(product)).body(product);
+    }
+
+    @GetMapping("/writes/{ticket}")
+    public ResponseEntity<?> getWriteStatus(@PathVariable long ticket){
+        return Optional.ofNullable(writeBehind)
+                .flatMap(queue -> queue.status(ticket))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No pending or recent write with ticket " + ticket + ".")));
+    }
+
+    @PutMapping("/upsert")
+    public ResponseEntity<Product> upsertProduct(@Valid @RequestBody ProductDto productDto){
+        Product product = service.upsert(productDto);
+        return ResponseEntity.ok(product);
     }
 
     @PostMapping("/all")
@@ -39,17 +94,49 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUsers);
     }
 
+    @PostMapping(value = "/stream", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<ChunkResult>> streamProducts(HttpServletRequest request) throws IOException {
+        List<ChunkResult> results = ingestService.ingest(request.getInputStream());
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping
-    public ResponseEntity<Iterable<Product>> getAllProducts(){
-        Iterable<Product> products = service.findAll();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductView>> getAllProducts(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit){
+        Window<ProductView> products = service.findAll(cursor, limit);
+        String nextCursor = paging.nextCursor(products);
+
+        return nextCursor == null
+                ? ResponseEntity.ok(products.getContent())
+                : ResponseEntity.ok().header(KeysetPaging.NEXT_CURSOR_HEADER, nextCursor).body(products.getContent());
+    }
+
+    @GetMapping("/export")
+    public void exportProducts(@RequestParam(defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(exportService.contentType(format).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + format);
+        exportService.export(format, response.getOutputStream());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChanges> getChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(syncService.changes(since, cursor, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id){
+    public ResponseEntity<?> getProductById(@PathVariable Long id, WebRequest request){
         try {
             Product product = service.findById(id);
-            return ResponseEntity.ok(product);
+            String eTag = eTag(product);
+
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).body(product);
         } catch (NoSuchElementException e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         }
@@ -57,34 +144,92 @@ public class ProductController {
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduct(@PathVariable Long id,
-                                           @Valid @RequestBody ProductDto productDto){
-        return handleUpdate(id, productDto);
+                                           @Valid @RequestBody ProductDto productDto,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return handleUpdate(id, productDto, ifMatch);
     }
 
     @PatchMapping("/{id}")
     public ResponseEntity<?> updatePartialProduct(@PathVariable Long id,
-                                                  @Valid @RequestBody PartialProductDto productDto){
-        return handleUpdate(id, productDto);
+                                                  @Valid @RequestBody PartialProductDto productDto,
+                                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return handleUpdate(id, productDto, ifMatch);
     }
 
-    private <T> ResponseEntity<?> handleUpdate(@PathVariable Long id, @RequestBody @Valid T newProduct) {
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> updateProducts(@RequestBody @Valid List<ProductUpdateDto> updates){
         try {
-            Product product = service.updateProduct(id, newProduct);
-            return ResponseEntity.ok(product);
+            List<Product> products = service.updateAll(updates);
+            return ResponseEntity.ok(products);
+        } catch (NoSuchElementException e){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk/price")
+    public ResponseEntity<Map<String, Integer>> repriceProducts(
+            @RequestParam @DecimalMin(value = "0.0", inclusive = false) Double minPrice,
+            @RequestParam @DecimalMin(value = "0.0", inclusive = false) Double maxPrice,
+            @RequestParam double percent){
+        int updated = service.repriceBetween(minPrice, maxPrice, percent);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    private <T> ResponseEntity<?> handleUpdate(Long id, T newProduct, String ifMatch) {
+        try {
+            Product product = service.updateProduct(id, newProduct, expectedVersion(id, ifMatch));
+            return ResponseEntity.ok().eTag(eTag(product)).body(product);
         } catch (NoSuchElementException e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
-        } catch (ProductUpdateException ex){
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", ex.getMessage()));
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteProductById(@PathVariable Long id){
+    public ResponseEntity<?> deleteProductById(@PathVariable Long id,
+                                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         try {
-            service.deleteById(id);
+            service.deleteById(id, expectedVersion(id, ifMatch));
             return ResponseEntity.noContent().build();
         } catch (NoSuchElementException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<Map<String, Long>> deleteProducts(@RequestParam List<Long> ids){
+        long deleted = service.deleteAllById(ids);
+        return ResponseEntity.ok(Map.of("deleted", deleted));
+    }
+
+    @DeleteMapping("/bulk/criteria")
+    public ResponseEntity<Map<String, Long>> deleteProductsMatching(
+            @RequestParam(required = false) @DecimalMin(value = "0.0", inclusive = false) Double minPrice,
+            @RequestParam(required = false) @DecimalMin(value = "0.0", inclusive = false) Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore){
+        long deleted = service.deleteMatching(minPrice, maxPrice, createdBefore);
+        return ResponseEntity.ok(Map.of("deleted", deleted));
+    }
+
+    private static String eTag(Product product) {
+        return "\"" + product.getVersion() + "\"";
+    }
+
+    // The version a strong If-Match tag asks for; null for no header or "*". Weak or multiple tags
+    // can never match under the strong comparison If-Match requires, so they fail the precondition.
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+
+        try {
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // Not one of our tags
+        }
+        throw new ObjectOptimisticLockingFailureException(Product.class, id);
+    }
 }
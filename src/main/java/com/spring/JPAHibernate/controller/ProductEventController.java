@@ -0,0 +1,59 @@
+package com.spring.JPAHibernate.controller;
+
+import com.spring.JPAHibernate.dto.ProductEvent;
+import com.spring.JPAHibernate.outbox.InMemoryProductEventSink;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/products/events")
+public class ProductEventController {
+    private final InMemoryProductEventSink sink;
+
+    @Autowired
+    public ProductEventController(ObjectProvider<InMemoryProductEventSink> sink) {
+        this.sink = sink.getIfAvailable();
+    }
+
+    // Push subscription to relayed change events, sent from the subscriber's own delivery thread;
+    // a client that falls behind or disconnects is dropped and its stream completed
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribe() {
+        if (sink == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "The event stream requires products.outbox.sink=memory."));
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Consumer<List<ProductEvent>> subscriber = events -> {
+            try {
+                for (ProductEvent event : events) {
+                    emitter.send(SseEmitter.event().id(String.valueOf(event.id())).name("product-change").data(event));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        sink.subscribe(subscriber, emitter::complete);
+        emitter.onCompletion(() -> sink.unsubscribe(subscriber));
+        emitter.onTimeout(() -> sink.unsubscribe(subscriber));
+        emitter.onError(e -> sink.unsubscribe(subscriber));
+
+        return ResponseEntity.ok(emitter);
+    }
+}
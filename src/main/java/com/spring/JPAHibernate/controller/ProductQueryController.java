@@ -1,11 +1,15 @@
 package com.spring.JPAHibernate.controller;
 
-import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.dto.ProductFilter;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
 import com.spring.JPAHibernate.service.ProductQueryService;
 import jakarta.validation.constraints.DecimalMin;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,42 +20,89 @@ import java.util.List;
 @RequestMapping("/products/query")
 public class ProductQueryController {
     private final ProductQueryService service;
+    private final KeysetPaging paging;
 
     @Autowired
-    public ProductQueryController(ProductQueryService service) {
+    public ProductQueryController(ProductQueryService service, KeysetPaging paging) {
         this.service = service;
+        this.paging = paging;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ProductView>> getProducts(@ModelAttribute ProductFilter filter,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit){
+        Window<ProductView> products = service.findAll(filter, cursor, limit);
+        return toResponse(products);
     }
 
     @GetMapping("/price-greater-than")
-    public ResponseEntity<List<Product>> getProductsWithPriceGreaterThan(
-            @RequestParam @DecimalMin(value = "0.0", inclusive = false) Double price){
+    public ResponseEntity<List<ProductView>> getProductsWithPriceGreaterThan(
+            @RequestParam @DecimalMin(value = "0.0", inclusive = false) Double price,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit){
 
-        List<Product> result = service.findByPriceGreaterThan(price);
+        Window<ProductView> result = service.findByPriceGreaterThan(price, cursor, limit);
 
-        return result.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(result);
+        return toResponse(result);
     }
 
     @GetMapping("/price-between")
-    public ResponseEntity<List<Product>> getProductsWithPriceBetween(
+    public ResponseEntity<List<ProductView>> getProductsWithPriceBetween(
             @RequestParam(name = "minPrice") @DecimalMin(value = "0.0", inclusive = false) Double minPrice,
-            @RequestParam(name = "maxPrice") @DecimalMin(value = "0.0", inclusive = false) Double maxPrice){
+            @RequestParam(name = "maxPrice") @DecimalMin(value = "0.0", inclusive = false) Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit){
 
-        List<Product> result = service.findByPriceBetween(minPrice, maxPrice);
+        Window<ProductView> result = service.findByPriceBetween(minPrice, maxPrice, cursor, limit);
 
-        return result.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(result);
+        return toResponse(result);
     }
 
     @GetMapping("/sorted")
-    public ResponseEntity<List<Product>> getProductsSorted(
+    public ResponseEntity<List<ProductView>> getProductsSorted(
             @RequestParam(name = "sortBy") String sortBy,
-            @RequestParam(defaultValue = "true", name = "ascending") boolean ascending) {
-        List<Product> products = service.findAllOrderBy(sortBy, ascending);
-        return products.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(products);
+            @RequestParam(defaultValue = "true", name = "ascending") boolean ascending,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Window<ProductView> products = service.findAllOrderBy(sortBy, ascending, cursor, limit);
+        return toResponse(products);
     }
 
     @GetMapping("/name-containing")
-    public ResponseEntity<List<Product>> getProductsByNameContaining(@RequestParam(name = "name") String name){
-        List<Product> products = service.findByNameContaining(name);
+    public ResponseEntity<List<ProductView>> getProductsByNameContaining(@RequestParam(name = "name") String name,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit){
+        Window<ProductView> products = service.findByNameContaining(name, cursor, limit);
+        return toResponse(products);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductView>> searchProducts(@RequestParam(name = "q") String query,
+                                                        @RequestParam(required = false) Integer limit){
+        List<ProductView> products = service.search(query, limit);
         return products.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(products);
     }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocompleteProductNames(@RequestParam(name = "prefix") String prefix,
+                                                                 @RequestParam(required = false) Integer limit){
+        List<String> names = service.autocomplete(prefix, limit);
+        return names.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(names);
+    }
+
+    private ResponseEntity<List<ProductView>> toResponse(Window<ProductView> window) {
+        if (window.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        String nextCursor = paging.nextCursor(window);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (nextCursor != null) {
+            response.header(KeysetPaging.NEXT_CURSOR_HEADER, nextCursor);
+        }
+
+        return response.body(window.getContent());
+    }
 }
@@ -0,0 +1,53 @@
+package com.spring.JPAHibernate.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.JPAHibernate.event.ProductChangeEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Pins a client's reads to the primary for a window after one of its product writes commits, so it never
+ * reads an older replica state while other clients keep reading from the replicas. Clients are told apart
+ * by {@code clientHeader}, falling back to the remote address; writes and reads outside an HTTP request
+ * count as one in-process client. Size the window above the expected replication lag; zero disables it.
+ */
+public class ReadYourWritesTracker {
+    private static final String IN_PROCESS = "";
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+    private final String clientHeader;
+
+    public ReadYourWritesTracker(Duration window, String clientHeader) {
+        this.recentWriters = window.isZero()
+                ? null
+                : Caffeine.newBuilder().expireAfterWrite(window).maximumSize(MAX_TRACKED_CLIENTS).build();
+        this.clientHeader = clientHeader;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (recentWriters != null) {
+            recentWriters.put(currentClient(), Boolean.TRUE);
+        }
+    }
+
+    public boolean pinnedToPrimary() {
+        return recentWriters != null && recentWriters.getIfPresent(currentClient()) != null;
+    }
+
+    private String currentClient() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return IN_PROCESS;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? "header:" + client : "address:" + request.getRemoteAddr();
+    }
+}
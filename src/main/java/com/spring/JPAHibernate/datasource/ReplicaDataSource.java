@@ -0,0 +1,129 @@
+package com.spring.JPAHibernate.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only side of the routing datasource. Hands out connections from the healthy replica pools chosen
+ * by a {@link ReplicaSelector} and falls back to the primary when every replica is down or reads are
+ * pinned for the calling client by {@link ReadYourWritesTracker}. Replicas are probed in the background and taken out of
+ * rotation as soon as a connection attempt fails.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final ReplicaSelector selector;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Set<HikariDataSource> down = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> connectionCounts = new LinkedHashMap<>();
+    private final ScheduledExecutorService healthChecks;
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, ReplicaSelector selector,
+                             ReadYourWritesTracker readYourWrites, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selector = selector;
+        this.readYourWrites = readYourWrites;
+
+        connectionCounts.put(PRIMARY, new AtomicLong());
+        this.replicas.forEach(replica -> connectionCounts.put(replica.getPoolName(), new AtomicLong()));
+
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health").daemon().factory());
+        long interval = healthCheckInterval.toMillis();
+        healthChecks.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readYourWrites.pinnedToPrimary()) {
+            List<HikariDataSource> healthy = healthyReplicas();
+
+            while (!healthy.isEmpty()) {
+                HikariDataSource replica = selector.select(healthy);
+
+                try {
+                    Connection connection = replica.getConnection();
+                    connectionCounts.get(replica.getPoolName()).incrementAndGet();
+                    return connection;
+                } catch (SQLException e) {
+                    markDown(replica, e);
+                    healthy.remove(replica);
+                }
+            }
+        }
+
+        Connection connection = primary.getConnection();
+        connectionCounts.get(PRIMARY).incrementAndGet();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    public void checkHealth() {
+        for (HikariDataSource replica : replicas) {
+            try (Connection connection = replica.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    if (down.remove(replica)) {
+                        log.info("Read replica {} is back in rotation", replica.getPoolName());
+                    }
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    public List<HikariDataSource> healthyReplicas() {
+        List<HikariDataSource> healthy = new ArrayList<>(replicas);
+        healthy.removeAll(down);
+        return healthy;
+    }
+
+    /**
+     * Read-only connections handed out so far, per replica pool name and for {@value #PRIMARY}.
+     */
+    public Map<String, Long> connectionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        connectionCounts.forEach((name, count) -> counts.put(name, count.get()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        healthChecks.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private void markDown(HikariDataSource replica, SQLException cause) {
+        if (down.add(replica)) {
+            log.warn("Read replica {} taken out of rotation", replica.getPoolName(), cause);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.spring.JPAHibernate.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "products.datasource.routing")
+public class ReplicaRoutingProperties {
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private String loadBalancer = "round-robin";
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration readYourWritesWindow = Duration.ZERO;
+    private String readYourWritesClientHeader = "X-Client-Id";
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
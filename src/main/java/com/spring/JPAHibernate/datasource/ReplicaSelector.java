@@ -0,0 +1,45 @@
+package com.spring.JPAHibernate.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the replica pool for the next read-only connection. Declare a bean of this type to replace
+ * the built-in strategies selected by {@code products.datasource.routing.load-balancer}.
+ */
+@FunctionalInterface
+public interface ReplicaSelector {
+    /**
+     * @param healthy the replicas currently passing health checks, never empty
+     */
+    HikariDataSource select(List<HikariDataSource> healthy);
+
+    static ReplicaSelector named(String name) {
+        return switch (name) {
+            case "round-robin"  -> roundRobin();
+            case "least-active" -> leastActive();
+            default             -> throw new IllegalArgumentException("Load balancer must be 'round-robin' or 'least-active'");
+        };
+    }
+
+    static ReplicaSelector roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return healthy -> healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    // Fewest connections currently in use, as reported by each Hikari pool
+    static ReplicaSelector leastActive() {
+        return healthy -> healthy.stream()
+                .min(Comparator.comparingInt(ReplicaSelector::activeConnections))
+                .orElseThrow();
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+}
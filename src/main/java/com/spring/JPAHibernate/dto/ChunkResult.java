@@ -0,0 +1,25 @@
+package com.spring.JPAHibernate.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChunkResult {
+    private int chunk;
+    private int received;
+    private int saved;
+    private String error;
+
+    public static ChunkResult saved(int chunk, int count) {
+        return new ChunkResult(chunk, count, count, null);
+    }
+
+    public static ChunkResult failed(int chunk, int received, String error) {
+        return new ChunkResult(chunk, received, 0, error);
+    }
+}
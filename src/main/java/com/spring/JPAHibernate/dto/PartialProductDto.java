@@ -1,12 +1,14 @@
 package com.spring.JPAHibernate.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.io.Serializable;
 
 @Data
 public class PartialProductDto implements Serializable {
+    @Size(max = 255, message = "Name must be at most 255 characters")
     private String name;
 
     @DecimalMin(value = "0.0",
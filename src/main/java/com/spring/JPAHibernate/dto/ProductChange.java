@@ -0,0 +1,18 @@
+package com.spring.JPAHibernate.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a sync page: the current state of a created or updated product, or a tombstone
+ * ({@code deleted = true}, with {@code updatedAt} holding the deletion time) for a deleted one.
+ */
+public record ProductChange(Long id, String name, Double price, LocalDateTime createdAt, LocalDateTime updatedAt,
+                            boolean deleted) {
+    public static ProductChange of(ProductView product) {
+        return new ProductChange(product.id(), product.name(), product.price(), product.createdAt(), product.updatedAt(), false);
+    }
+
+    public static ProductChange deleted(Long id, LocalDateTime deletedAt) {
+        return new ProductChange(id, null, null, null, deletedAt, true);
+    }
+}
@@ -0,0 +1,10 @@
+package com.spring.JPAHibernate.dto;
+
+import java.util.List;
+
+/**
+ * A page of changes in (updatedAt, id) order. {@code cursor} resumes after the last change and is
+ * what a mirror stores as its watermark; {@code hasMore} tells it to keep paging now.
+ */
+public record ProductChanges(List<ProductChange> changes, String cursor, boolean hasMore) {
+}
@@ -0,0 +1,11 @@
+package com.spring.JPAHibernate.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Change event relayed from the outbox, listing every product the mutation saved or deleted. {@code id}
+ * increases in commit order for any one product.
+ */
+public record ProductEvent(long id, LocalDateTime occurredAt, List<ProductChange> changes) {
+}
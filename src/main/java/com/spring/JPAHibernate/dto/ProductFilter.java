@@ -0,0 +1,32 @@
+package com.spring.JPAHibernate.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional criteria for {@code GET /products/query}; unset fields are not filtered on.
+ * Sort entries name a product field, prefixed with '-' for descending order.
+ */
+@Data
+public class ProductFilter {
+    private Double minPrice;
+    private Double maxPrice;
+    private String name;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    private List<String> sort;
+}
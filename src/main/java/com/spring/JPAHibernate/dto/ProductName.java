@@ -0,0 +1,4 @@
+package com.spring.JPAHibernate.dto;
+
+public record ProductName(Long id, String name) {
+}
@@ -0,0 +1,12 @@
+package com.spring.JPAHibernate.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ProductUpdateDto extends PartialProductDto {
+    @NotNull(message = "Id is required")
+    private Long id;
+}
@@ -0,0 +1,11 @@
+package com.spring.JPAHibernate.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row for list endpoints. Built straight from the query result, so Hibernate neither
+ * hydrates nor snapshots a managed {@code Product} for it; serializes to the same JSON shape.
+ */
+public record ProductView(Long id, String name, Double price, LocalDateTime createdAt, LocalDateTime updatedAt,
+                          Long version) {
+}
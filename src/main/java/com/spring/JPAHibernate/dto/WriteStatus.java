@@ -0,0 +1,20 @@
+package com.spring.JPAHibernate.dto;
+
+/**
+ * Outcome of a product write acknowledged by the write-behind queue, looked up by its ticket.
+ */
+public record WriteStatus(long ticket, State state, Long productId, String error) {
+    public enum State { PENDING, LANDED, REJECTED }
+
+    public static WriteStatus pending(long ticket) {
+        return new WriteStatus(ticket, State.PENDING, null, null);
+    }
+
+    public static WriteStatus landed(long ticket, Long productId) {
+        return new WriteStatus(ticket, State.LANDED, productId, null);
+    }
+
+    public static WriteStatus rejected(long ticket, String error) {
+        return new WriteStatus(ticket, State.REJECTED, null, error);
+    }
+}
@@ -4,20 +4,32 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity(name = "products")
-@Table(name = "products")
+@Table(name = "products",
+        uniqueConstraints = @UniqueConstraint(name = Product.NAME_CONSTRAINT, columnNames = "name"),
+        indexes = {
+                @Index(name = "idx_products_price_id", columnList = "price, id"),
+                @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_products_updated_at_id", columnList = "updated_at, id")
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
+    public static final String NAME_CONSTRAINT = "uk_products_name";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.TABLE)
+    @ProductId(sequenceName = "products_seq")
     private Long id;
 
-    @Column(name = "name", nullable = false, unique = true)
+    @Column(name = "name", nullable = false)
     private String name;
 
     @Column(name = "price", nullable = false)
@@ -29,6 +41,10 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,21 @@
+package com.spring.JPAHibernate.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated id from a pooled-lo sequence through {@link ProductIdGenerator}.
+ */
+@IdGeneratorType(ProductIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ProductId {
+    String sequenceName();
+
+    // Default block size, overridden by the products.id.increment-size setting
+    int incrementSize() default 50;
+}
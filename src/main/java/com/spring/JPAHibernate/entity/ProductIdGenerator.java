@@ -0,0 +1,37 @@
+package com.spring.JPAHibernate.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Pooled-lo sequence generator behind {@link ProductId}, whose block size can be tuned through the
+ * {@value #INCREMENT_SIZE_SETTING} setting instead of being fixed in the mapping.
+ */
+public class ProductIdGenerator extends SequenceStyleGenerator {
+    public static final String INCREMENT_SIZE_SETTING = "products.id.increment-size";
+
+    private final ProductId config;
+
+    public ProductIdGenerator(ProductId config) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Integer incrementSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(INCREMENT_SIZE_SETTING, StandardConverters.INTEGER);
+
+        parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(incrementSize != null ? incrementSize : config.incrementSize()));
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.spring.JPAHibernate.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending change event, written in the transaction of the mutation it describes. Identity ids are
+ * assigned by the insert itself, after the product rows are locked, so two events for one product
+ * are always numbered in commit order.
+ */
+@Entity(name = "product_outbox")
+@Table(name = "product_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // JSON array of ProductChange
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package com.spring.JPAHibernate.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletion log entry, so sync clients learn about products that no longer have a row.
+ */
+@Entity(name = "product_tombstones")
+@Table(name = "product_tombstones",
+        indexes = @Index(name = "idx_product_tombstones_deleted_at_id", columnList = "deleted_at, product_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTombstone {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,31 @@
+package com.spring.JPAHibernate.event;
+
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.entity.Product;
+
+import java.util.List;
+
+/**
+ * Published by {@code ProductService} for every write, bulk statements included, with the committed-to-be
+ * state of every saved product and the id of every deleted one. Rows are detached {@link ProductView}
+ * values rather than entities, so listeners never hold on to a persistence context. {@code namesChanged}
+ * is false when the write cannot have touched names, so name-only listeners can skip it.
+ */
+public record ProductChangeEvent(List<ProductView> saved, List<Long> deleted, boolean namesChanged) {
+    public static ProductChangeEvent saved(List<Product> products) {
+        return new ProductChangeEvent(products.stream().map(ProductChangeEvent::view).toList(), List.of(), true);
+    }
+
+    public static ProductChangeEvent deleted(List<Long> ids) {
+        return new ProductChangeEvent(List.of(), ids, true);
+    }
+
+    public static ProductChangeEvent repriced(List<ProductView> rows) {
+        return new ProductChangeEvent(rows, List.of(), false);
+    }
+
+    private static ProductView view(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getPrice(),
+                product.getCreatedAt(), product.getUpdatedAt(), product.getVersion());
+    }
+}
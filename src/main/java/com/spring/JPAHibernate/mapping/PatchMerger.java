@@ -0,0 +1,99 @@
+package com.spring.JPAHibernate.mapping;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Copies the non-null properties of a source bean onto a target bean. The getter/setter pairs are
+ * resolved once and compiled into lambdas, so merging allocates nothing and involves no serialization.
+ * Instances are immutable and thread-safe; build one per type pair and reuse it.
+ */
+public final class PatchMerger<S, T> {
+    private final List<PropertyCopy<S, T>> copies;
+
+    private PatchMerger(List<PropertyCopy<S, T>> copies) {
+        this.copies = copies;
+    }
+
+    /**
+     * Pairs every readable property of {@code sourceType} with the writable property of the same name on
+     * {@code targetType}; source properties without a counterpart are ignored.
+     */
+    public static <S, T> PatchMerger<S, T> of(Class<S> sourceType, Class<T> targetType) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<PropertyCopy<S, T>> copies = new ArrayList<>();
+
+        for (PropertyDescriptor source : BeanUtils.getPropertyDescriptors(sourceType)) {
+            PropertyDescriptor target = BeanUtils.getPropertyDescriptor(targetType, source.getName());
+
+            if (source.getReadMethod() == null || target == null || target.getWriteMethod() == null) {
+                continue;
+            }
+            if (!target.getPropertyType().isAssignableFrom(source.getPropertyType())) {
+                throw new IllegalArgumentException("Property '" + source.getName() + "' of " + sourceType.getSimpleName()
+                        + " cannot be assigned to " + targetType.getSimpleName());
+            }
+
+            copies.add(new PropertyCopy<>(getter(lookup, source.getReadMethod()), setter(lookup, target.getWriteMethod())));
+        }
+
+        if (copies.isEmpty()) {
+            throw new IllegalArgumentException(sourceType.getSimpleName() + " has no properties to merge into " + targetType.getSimpleName());
+        }
+
+        return new PatchMerger<>(List.copyOf(copies));
+    }
+
+    public T merge(S source, T target) {
+        for (PropertyCopy<S, T> copy : copies) {
+            Object value = copy.getter().apply(source);
+
+            if (value != null) {
+                copy.setter().accept(target, value);
+            }
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> Function<S, Object> getter(MethodHandles.Lookup lookup, Method method) {
+        try {
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle, handle.type().wrap());
+            return (Function<S, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to compile getter " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BiConsumer<T, Object> setter(MethodHandles.Lookup lookup, Method method) {
+        try {
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle, handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<T, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to compile setter " + method, e);
+        }
+    }
+
+    private record PropertyCopy<S, T>(Function<S, Object> getter, BiConsumer<T, Object> setter) {
+    }
+}
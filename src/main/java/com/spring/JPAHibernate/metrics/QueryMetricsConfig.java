@@ -0,0 +1,108 @@
+package com.spring.JPAHibernate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Feeds {@link RequestQueryStats}: a statement inspector counts SQL sent, a post-load listener counts
+ * hydrated entities and a repository proxy advice counts result rows, also recorded per
+ * repository method as {@code products.repository.rows}.
+ */
+@Configuration
+public class QueryMetricsConfig {
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingInspector() {
+        StatementInspector inspector = sql -> {
+            RequestQueryStats.statementPrepared(sql);
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestQueryStats.entityLoaded());
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryRowCounter(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    rowCounter(information.getRepositoryInterface(), registry))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor rowCounter(Class<?> repositoryInterface, ObjectProvider<MeterRegistry> registry) {
+        return invocation -> {
+            Object result = invocation.proceed();
+            long rows = rows(result);
+
+            if (rows >= 0) {
+                RequestQueryStats.rowsReturned(rows);
+                DistributionSummary.builder("products.repository.rows")
+                        .baseUnit("rows")
+                        .tag("repository", repositoryInterface.getSimpleName())
+                        .tag("method", invocation.getMethod().getName())
+                        .publishPercentileHistogram()
+                        .register(registry.getObject())
+                        .record(rows);
+            }
+            return result;
+        };
+    }
+
+    // Row count of a repository result, or -1 when it is not a query result (counts, streams, void)
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Window<?> window) {
+            return window.size();
+        } else if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Iterable<?> iterable) {
+            long count = 0;
+            for (Object ignored : iterable) {
+                count++;
+            }
+            return count;
+        } else if (result instanceof Number || result instanceof Boolean || result instanceof Stream<?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
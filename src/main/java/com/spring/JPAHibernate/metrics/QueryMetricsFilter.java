@@ -0,0 +1,68 @@
+package com.spring.JPAHibernate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records per-request SQL statement, row and entity-load counts as histograms tagged like
+ * {@code http.server.requests}, so an N+1 or unbounded result shows up as a shift in one endpoint's
+ * distribution.
+ */
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry registry;
+
+    @Autowired
+    public QueryMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                "uri", pattern == null ? "UNKNOWN" : pattern.toString(),
+                "status", String.valueOf(response.getStatus()));
+
+        summary("products.request.sql.statements", "statements", tags).record(stats.statements());
+        summary("products.request.rows", "rows", tags).record(stats.rows());
+        summary("products.request.entities.loaded", "entities", tags).record(stats.entitiesLoaded());
+    }
+
+    private DistributionSummary summary(String name, String baseUnit, Tags tags) {
+        return DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.spring.JPAHibernate.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Database work done on behalf of the current HTTP request: SQL statements sent, rows returned by
+ * repository methods and entities hydrated into the persistence context. Bound to the request thread
+ * by {@link QueryMetricsFilter}; updates made outside a request are dropped.
+ * <p>
+ * {@link #captureStatements} additionally keeps the SQL text, e.g. to inspect the plans of generated queries.
+ */
+public final class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private int entitiesLoaded;
+    private List<String> sql;
+
+    private RequestQueryStats() {
+    }
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs {@code work} on the current thread and returns the SQL statements it sent, in order.
+     */
+    public static List<String> captureStatements(Runnable work) {
+        RequestQueryStats previous = CURRENT.get();
+        RequestQueryStats stats = new RequestQueryStats();
+        stats.sql = new ArrayList<>();
+        CURRENT.set(stats);
+
+        try {
+            work.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+        return stats.sql;
+    }
+
+    static void statementPrepared(String sql) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            if (stats.sql != null) {
+                stats.sql.add(sql);
+            }
+        }
+    }
+
+    static void rowsReturned(long count) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows += count;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public int entitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
@@ -0,0 +1,67 @@
+package com.spring.JPAHibernate.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ProductEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed events as newline-delimited JSON and forces each batch to disk before the relay
+ * deletes it from the outbox. Consumers tail the file and skip event ids they have already seen.
+ */
+@Component
+@ConditionalOnProperty(name = "products.outbox.sink", havingValue = "file")
+public class FileProductEventSink implements ProductEventSink {
+    private final ObjectMapper mapper;
+    private final FileChannel channel;
+
+    @Autowired
+    public FileProductEventSink(ObjectMapper mapper, @Value("${products.outbox.file.path}") Path path) throws IOException {
+        this.mapper = mapper;
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<ProductEvent> events) {
+        StringBuilder lines = new StringBuilder();
+
+        try {
+            for (ProductEvent event : events) {
+                lines.append(mapper.writeValueAsString(event)).append('\n');
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize product events", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append product events", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
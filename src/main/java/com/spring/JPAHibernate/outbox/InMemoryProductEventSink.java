@@ -0,0 +1,128 @@
+package com.spring.JPAHibernate.outbox;
+
+import com.spring.JPAHibernate.dto.ProductEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hands relayed events to in-process subscribers (the SSE stream among them) and keeps the most
+ * recent ones for late readers. Each subscriber is fed from its own bounded queue on its own virtual
+ * thread, so a slow one never holds up the relay; one that throws or lets its queue overflow is dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "products.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryProductEventSink implements ProductEventSink {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryProductEventSink.class);
+
+    private final Map<Consumer<List<ProductEvent>>, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Deque<ProductEvent> recent = new ArrayDeque<>();
+    private final int retained;
+    private final int subscriberCapacity;
+
+    public InMemoryProductEventSink(@Value("${products.outbox.memory.retained:1000}") int retained,
+                                    @Value("${products.outbox.memory.subscriber-capacity:100}") int subscriberCapacity) {
+        this.retained = retained;
+        this.subscriberCapacity = subscriberCapacity;
+    }
+
+    @Override
+    public void publish(List<ProductEvent> events) {
+        synchronized (recent) {
+            events.forEach(recent::addLast);
+            while (recent.size() > retained) {
+                recent.removeFirst();
+            }
+        }
+
+        for (Subscription subscription : subscriptions.values()) {
+            if (!subscription.pending.offer(events)) {
+                log.debug("Dropping product event subscriber that fell {} batches behind", subscriberCapacity);
+                subscription.close();
+            }
+        }
+    }
+
+    public void subscribe(Consumer<List<ProductEvent>> subscriber) {
+        subscribe(subscriber, () -> {});
+    }
+
+    /**
+     * Delivers every later batch to {@code subscriber}; {@code dropped} runs on the delivery thread once
+     * the subscriber is dropped for throwing or falling behind.
+     */
+    public void subscribe(Consumer<List<ProductEvent>> subscriber, Runnable dropped) {
+        Subscription subscription = new Subscription(subscriber, dropped);
+        subscriptions.put(subscriber, subscription);
+        subscription.deliverer.start();
+    }
+
+    public void unsubscribe(Consumer<List<ProductEvent>> subscriber) {
+        Subscription subscription = subscriptions.remove(subscriber);
+        if (subscription != null) {
+            subscription.deliverer.interrupt();
+        }
+    }
+
+    public List<ProductEvent> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.keySet().forEach(this::unsubscribe);
+    }
+
+    private final class Subscription {
+        private final Consumer<List<ProductEvent>> subscriber;
+        private final Runnable dropped;
+        private final BlockingQueue<List<ProductEvent>> pending = new ArrayBlockingQueue<>(subscriberCapacity);
+        private final Thread deliverer;
+        private volatile boolean closed;
+
+        Subscription(Consumer<List<ProductEvent>> subscriber, Runnable dropped) {
+            this.subscriber = subscriber;
+            this.dropped = dropped;
+            this.deliverer = Thread.ofVirtual().name("product-event-subscriber").unstarted(this::deliver);
+        }
+
+        // The deliverer may be stuck writing to a slow client; it notices once that write returns
+        void close() {
+            closed = true;
+            subscriptions.remove(subscriber, this);
+            deliverer.interrupt();
+        }
+
+        private void deliver() {
+            try {
+                while (!closed) {
+                    subscriber.accept(pending.take());
+                }
+            } catch (InterruptedException e) {
+                // Unsubscribed, unless closed for falling behind
+            } catch (RuntimeException e) {
+                log.debug("Dropping product event subscriber", e);
+                closed = true;
+                subscriptions.remove(subscriber, this);
+            }
+
+            if (closed) {
+                dropped.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.spring.JPAHibernate.outbox;
+
+import com.spring.JPAHibernate.dto.ProductEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed product events. A batch that fails to publish stays in the outbox and is
+ * offered again, so implementations must tolerate seeing events more than once.
+ */
+public interface ProductEventSink {
+    void publish(List<ProductEvent> events);
+}
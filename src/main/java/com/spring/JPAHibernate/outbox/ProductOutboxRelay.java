@@ -0,0 +1,123 @@
+package com.spring.JPAHibernate.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ProductChange;
+import com.spring.JPAHibernate.dto.ProductEvent;
+import com.spring.JPAHibernate.entity.ProductOutboxEvent;
+import com.spring.JPAHibernate.repository.ProductOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves outbox rows to the configured {@link ProductEventSink}s in id order, one batch per
+ * transaction: rows are deleted only in the transaction that published them, so delivery is
+ * at-least-once. Throughput and delivery lag are exported as {@code products.outbox.*} metrics.
+ */
+@Component
+@ConditionalOnProperty(name = "products.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductOutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(ProductOutboxRelay.class);
+    private static final TypeReference<List<ProductChange>> CHANGES = new TypeReference<>() {};
+
+    private final ProductOutboxRepository repository;
+    private final List<ProductEventSink> sinks;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final boolean scheduled;
+
+    private final Counter published;
+    private final Timer lag;
+    private final Timer batchTime;
+
+    @Autowired
+    public ProductOutboxRelay(ProductOutboxRepository repository, List<ProductEventSink> sinks, ObjectMapper mapper,
+                              PlatformTransactionManager transactionManager, MeterRegistry registry,
+                              @Value("${products.outbox.relay.batch-size:500}") int batchSize,
+                              @Value("${products.outbox.relay.enabled:true}") boolean scheduled) {
+        this.repository = repository;
+        this.sinks = sinks;
+        this.mapper = mapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.scheduled = scheduled;
+
+        this.published = Counter.builder("products.outbox.published").baseUnit("events").register(registry);
+        this.lag = Timer.builder("products.outbox.lag")
+                .description("Time from the mutation's commit to its event being published")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchTime = Timer.builder("products.outbox.relay.batch").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${products.outbox.relay.interval:200ms}")
+    public void scheduledRelay() {
+        if (!scheduled) {
+            return;
+        }
+
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("Relaying product events failed; the batch stays in the outbox", e);
+        }
+    }
+
+    /**
+     * Publishes batches until the outbox is empty and returns the number of events published.
+     */
+    public int relay() {
+        int total = 0;
+        int relayed;
+
+        do {
+            relayed = batchTime.record(() -> transaction.execute(status -> relayBatch()));
+            total += relayed;
+        } while (relayed == batchSize);
+
+        return total;
+    }
+
+    private int relayBatch() {
+        List<ProductOutboxEvent> rows = repository.findAllByOrderByIdAsc(Limit.of(batchSize));
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<ProductEvent> events = rows.stream().map(this::toEvent).toList();
+        sinks.forEach(sink -> sink.publish(events));
+        repository.deleteAllByIdInBatch(rows.stream().map(ProductOutboxEvent::getId).toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> lag.record(Duration.between(event.occurredAt(), now)));
+        published.increment(events.size());
+
+        return events.size();
+    }
+
+    private ProductEvent toEvent(ProductOutboxEvent row) {
+        try {
+            return new ProductEvent(row.getId(), row.getCreatedAt(), mapper.readValue(row.getPayload(), CHANGES));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox row " + row.getId(), e);
+        }
+    }
+}
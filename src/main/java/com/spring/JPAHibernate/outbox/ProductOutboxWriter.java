@@ -0,0 +1,60 @@
+package com.spring.JPAHibernate.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ProductChange;
+import com.spring.JPAHibernate.entity.ProductOutboxEvent;
+import com.spring.JPAHibernate.event.ProductChangeEvent;
+import com.spring.JPAHibernate.repository.ProductOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns every {@link ProductChangeEvent} into outbox rows inside the publishing transaction, just
+ * before it commits, so the event exists if and only if the mutation does. Bulk writes are split into
+ * rows of at most {@code products.bulk-update.max-size} changes, so no single row or relayed event grows
+ * with the size of the statement.
+ */
+@Component
+@ConditionalOnProperty(name = "products.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductOutboxWriter {
+    private final ProductOutboxRepository repository;
+    private final ObjectMapper mapper;
+    private final int maxChangesPerRow;
+
+    @Autowired
+    public ProductOutboxWriter(ProductOutboxRepository repository, ObjectMapper mapper,
+                               @Value("${products.bulk-update.max-size:10000}") int maxChangesPerRow) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.maxChangesPerRow = maxChangesPerRow;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChange(ProductChangeEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductChange> changes = new ArrayList<>(event.saved().size() + event.deleted().size());
+
+        event.saved().forEach(product -> changes.add(ProductChange.of(product)));
+        event.deleted().forEach(id -> changes.add(ProductChange.deleted(id, now)));
+
+        List<ProductOutboxEvent> rows = new ArrayList<>(changes.size() / maxChangesPerRow + 1);
+        try {
+            for (int from = 0; from < changes.size(); from += maxChangesPerRow) {
+                List<ProductChange> chunk = changes.subList(from, Math.min(from + maxChangesPerRow, changes.size()));
+                rows.add(new ProductOutboxEvent(null, mapper.writeValueAsString(chunk), now));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize product changes", e);
+        }
+        repository.saveAll(rows);
+    }
+}
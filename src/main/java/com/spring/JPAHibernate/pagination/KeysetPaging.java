@@ -0,0 +1,164 @@
+package com.spring.JPAHibernate.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates between opaque continuation tokens and keyset scroll positions on (sort keys, id),
+ * and bounds page sizes. Seeking past the last seen key keeps page N as cheap as page 1.
+ * <p>
+ * Descending keys are stored as {@code -property}, like the {@code sort} request parameter, so a
+ * cursor is only accepted for the ordering it was issued for.
+ */
+@Component
+public class KeysetPaging {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String ID = "id";
+    private static final String DESCENDING = "-";
+
+    private final ObjectMapper mapper;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    @Autowired
+    public KeysetPaging(ObjectMapper mapper,
+                        @Value("${products.page.default-limit:100}") int defaultLimit,
+                        @Value("${products.page.max-limit:1000}") int maxLimit) {
+        this.mapper = mapper;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public Limit limit(Integer requested) {
+        if (requested == null) {
+            return Limit.of(defaultLimit);
+        }
+        if (requested < 1 || requested > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        return Limit.of(requested);
+    }
+
+    public KeysetScrollPosition position(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, String> encodedKeys = decode(cursor);
+
+        if (!encodedKeys.keySet().equals(keysOf(sort))) {
+            throw new IllegalArgumentException("The cursor does not match the requested ordering");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        encodedKeys.forEach((key, value) -> {
+            String property = key.startsWith(DESCENDING) ? key.substring(DESCENDING.length()) : key;
+            keys.put(property, parse(property, value));
+        });
+
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Marks the descending keys of {@code window}'s positions, so {@link #nextCursor} records the direction.
+     */
+    public <T> Window<T> ordered(Window<T> window, Sort sort) {
+        if (sort.stream().noneMatch(Sort.Order::isDescending)) {
+            return window;
+        }
+
+        return Window.from(window.getContent(), index -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            ((KeysetScrollPosition) window.positionAt(index)).getKeys()
+                    .forEach((property, value) -> keys.put(key(property, sort), value));
+            return ScrollPosition.forward(keys);
+        }, window.hasNext());
+    }
+
+    public String nextCursor(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return encode(position.getKeys());
+    }
+
+    public String encode(Map<String, ?> positionKeys) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        positionKeys.forEach((property, value) -> keys.put(property, String.valueOf(value)));
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mapper.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    private Map<String, String> decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            return mapper.readValue(json, new TypeReference<LinkedHashMap<String, String>>() {});
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    private Set<String> keysOf(Sort sort) {
+        Set<String> keys = new LinkedHashSet<>();
+        sort.forEach(order -> keys.add(key(order.getProperty(), sort)));
+        if (sort.getOrderFor(ID) == null) {
+            keys.add(ID);
+        }
+        return keys;
+    }
+
+    private static String key(String property, Sort sort) {
+        Sort.Order order = sort.getOrderFor(property);
+        return order != null && order.isDescending() ? DESCENDING + property : property;
+    }
+
+    private Object parse(String property, String value) {
+        Field field = ReflectionUtils.findField(Product.class, property);
+
+        if (field == null) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        try {
+            Class<?> type = field.getType();
+
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == Double.class) {
+                return Double.valueOf(value);
+            } else if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+}
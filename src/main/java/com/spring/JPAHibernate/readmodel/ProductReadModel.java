@@ -0,0 +1,281 @@
+package com.spring.JPAHibernate.readmodel;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.event.ProductChangeEvent;
+import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Whole catalog held in skip lists ordered by id, (price, id) and (created_at, id), answering the
+ * price range and ordered queries of {@code ProductQueryService} without a connection. Keys are
+ * records of primitives, so lookups compare doubles and longs without unboxing.
+ * <p>
+ * Loaded at startup and updated only from committed {@link ProductChangeEvent}s, so rolled-back writes
+ * never become visible. While a load is running, callers fall back to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "products.read-model.enabled", havingValue = "true")
+public class ProductReadModel {
+    // Far longer than any listener lags behind its commit
+    private static final Duration REMOVED_RETENTION = Duration.ofMinutes(10);
+
+    private final ProductCrudRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final NavigableMap<Long, ProductView> byId = new ConcurrentSkipListMap<>();
+    private final NavigableMap<PriceKey, ProductView> byPrice = new ConcurrentSkipListMap<>();
+    private final NavigableMap<CreatedKey, ProductView> byCreatedAt = new ConcurrentSkipListMap<>();
+
+    // Ids come from a sequence and are never reused, so a removed product must not come back
+    private final Cache<Long, Boolean> removed = Caffeine.newBuilder().expireAfterWrite(REMOVED_RETENTION).build();
+
+    private volatile boolean ready;
+
+    @Autowired
+    public ProductReadModel(ProductCrudRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        byId.clear();
+        byPrice.clear();
+        byCreatedAt.clear();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductView> all = repository.streamAllViews()) {
+                all.forEach(this::put);
+            }
+        });
+        ready = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        event.deleted().forEach(this::remove);
+        event.saved().forEach(this::put);
+    }
+
+    public synchronized void put(ProductView product) {
+        ProductView previous = byId.get(product.id());
+
+        // Listeners of concurrent commits may run out of order; never go back to an older state
+        if (removed.getIfPresent(product.id()) != null
+                || previous != null && previous.version() >= product.version()) {
+            return;
+        }
+
+        // New keys go in before the old ones leave, so readers never miss the product mid-update
+        byId.put(product.id(), product);
+        byPrice.put(PriceKey.of(product), product);
+        byCreatedAt.put(CreatedKey.of(product), product);
+
+        if (previous != null) {
+            PriceKey previousPrice = PriceKey.of(previous);
+            CreatedKey previousCreatedAt = CreatedKey.of(previous);
+
+            if (!previousPrice.equals(PriceKey.of(product))) {
+                byPrice.remove(previousPrice);
+            }
+            if (!previousCreatedAt.equals(CreatedKey.of(product))) {
+                byCreatedAt.remove(previousCreatedAt);
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        removed.put(id, Boolean.TRUE);
+        ProductView previous = byId.remove(id);
+
+        if (previous != null) {
+            byPrice.remove(PriceKey.of(previous));
+            byCreatedAt.remove(CreatedKey.of(previous));
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Window<ProductView> findByPriceGreaterThan(double price, KeysetScrollPosition position, int limit) {
+        return findInPriceRange(byPrice.tailMap(new PriceKey(price, Long.MAX_VALUE), false),
+                value -> value > price, position, limit);
+    }
+
+    public Window<ProductView> findByPriceBetween(double minPrice, double maxPrice, KeysetScrollPosition position, int limit) {
+        if (minPrice > maxPrice) {
+            return window(List.of(), limit, ProductReadModel::idKeys);
+        }
+
+        return findInPriceRange(
+                byPrice.subMap(new PriceKey(minPrice, Long.MIN_VALUE), true, new PriceKey(maxPrice, Long.MAX_VALUE), true),
+                value -> value >= minPrice && value <= maxPrice, position, limit);
+    }
+
+    /**
+     * Page of products ordered by {@code price} or {@code createdAt} with id as tie-breaker in the same
+     * direction, continuing after the keys of {@code position}.
+     */
+    public Window<ProductView> findAllOrderBy(String property, boolean ascending, KeysetScrollPosition position, int limit) {
+        Map<String, Object> keys = position.getKeys();
+
+        return switch (property) {
+            case "price" -> {
+                NavigableMap<PriceKey, ProductView> ordered = ascending ? byPrice : byPrice.descendingMap();
+                if (!keys.isEmpty()) {
+                    ordered = ordered.tailMap(new PriceKey((Double) keys.get("price"), (Long) keys.get("id")), false);
+                }
+                yield window(first(ordered.values().iterator(), limit + 1), limit, ProductReadModel::priceKeys);
+            }
+            case "createdAt" -> {
+                NavigableMap<CreatedKey, ProductView> ordered = ascending ? byCreatedAt : byCreatedAt.descendingMap();
+                if (!keys.isEmpty()) {
+                    ordered = ordered.tailMap(
+                            new CreatedKey(epochNanos((LocalDateTime) keys.get("createdAt")), (Long) keys.get("id")), false);
+                }
+                yield window(first(ordered.values().iterator(), limit + 1), limit, ProductReadModel::createdAtKeys);
+            }
+            default -> throw new IllegalArgumentException("Sort field must be 'createdAt' or 'price'");
+        };
+    }
+
+    // Id-ordered page of a price range. Walks the id map (filtering on price) and the price range
+    // (keeping the smallest ids) in lock-step and stops at whichever finishes first, so a wide range
+    // costs about one page of the id map and a narrow one about the size of the range.
+    private Window<ProductView> findInPriceRange(NavigableMap<PriceKey, ProductView> range, DoublePredicate inRange,
+                                                 KeysetScrollPosition position, int limit) {
+        Long afterId = (Long) position.getKeys().get("id");
+        int wanted = limit + 1;
+
+        Iterator<ProductView> idOrder = (afterId == null ? byId : byId.tailMap(afterId, false)).values().iterator();
+        Iterator<ProductView> priceOrder = range.values().iterator();
+
+        List<ProductView> scanned = new ArrayList<>(wanted);
+        PriorityQueue<ProductView> smallestIds = new PriorityQueue<>(wanted + 1,
+                Comparator.comparingLong(ProductView::id).reversed());
+
+        while (true) {
+            if (!idOrder.hasNext()) {
+                return window(scanned, limit, ProductReadModel::idKeys);
+            }
+
+            ProductView next = idOrder.next();
+            if (inRange.test(next.price())) {
+                scanned.add(next);
+                if (scanned.size() == wanted) {
+                    return window(scanned, limit, ProductReadModel::idKeys);
+                }
+            }
+
+            if (!priceOrder.hasNext()) {
+                List<ProductView> page = new ArrayList<>(smallestIds);
+                page.sort(Comparator.comparingLong(ProductView::id));
+                return window(page, limit, ProductReadModel::idKeys);
+            }
+
+            ProductView candidate = priceOrder.next();
+            if (afterId == null || candidate.id() > afterId) {
+                smallestIds.add(candidate);
+                if (smallestIds.size() > wanted) {
+                    smallestIds.poll();
+                }
+            }
+        }
+    }
+
+    private static List<ProductView> first(Iterator<ProductView> ordered, int count) {
+        List<ProductView> rows = new ArrayList<>(count);
+        while (rows.size() < count && ordered.hasNext()) {
+            rows.add(ordered.next());
+        }
+        return rows;
+    }
+
+    // Holds one row beyond the page to tell whether there is a next page, like a keyset query with limit + 1
+    private static Window<ProductView> window(List<ProductView> rows, int limit,
+                                              Function<ProductView, Map<String, Object>> keys) {
+        List<ProductView> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        return Window.from(page, index -> ScrollPosition.forward(keys.apply(page.get(index))), rows.size() > limit);
+    }
+
+    private static Map<String, Object> idKeys(ProductView product) {
+        return Map.of("id", product.id());
+    }
+
+    private static Map<String, Object> priceKeys(ProductView product) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("price", product.price());
+        keys.put("id", product.id());
+        return keys;
+    }
+
+    private static Map<String, Object> createdAtKeys(ProductView product) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", product.createdAt());
+        keys.put("id", product.id());
+        return keys;
+    }
+
+    private static long epochNanos(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano();
+    }
+
+    private record PriceKey(double price, long id) implements Comparable<PriceKey> {
+        static PriceKey of(ProductView product) {
+            return new PriceKey(product.price(), product.id());
+        }
+
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Double.compare(price, other.price);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+    }
+
+    private record CreatedKey(long createdAt, long id) implements Comparable<CreatedKey> {
+        static CreatedKey of(ProductView product) {
+            return new CreatedKey(epochNanos(product.createdAt()), product.id());
+        }
+
+        @Override
+        public int compareTo(CreatedKey other) {
+            int byCreatedAt = Long.compare(createdAt, other.createdAt);
+            return byCreatedAt != 0 ? byCreatedAt : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Shared plumbing of the repository fragments that issue native statements against the products table.
+ */
+final class NativeProductStatements {
+    private NativeProductStatements() {
+    }
+
+    static boolean isPostgres(EntityManager entityManager) {
+        return sessionFactory(entityManager).getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    static EntityPersister productPersister(EntityManager entityManager) {
+        return sessionFactory(entityManager).getMappingMetamodel().getEntityDescriptor(Product.class);
+    }
+
+    // Scoping the statement to the products table keeps it from invalidating every cache region
+    static NativeQuery<?> nativeQuery(EntityManager entityManager, String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Product.class);
+    }
+
+    private static SessionFactoryImplementor sessionFactory(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+}
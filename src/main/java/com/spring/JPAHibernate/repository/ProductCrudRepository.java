@@ -1,14 +1,69 @@
 package com.spring.JPAHibernate.repository;
 
+import com.spring.JPAHibernate.dto.ProductName;
+import com.spring.JPAHibernate.dto.ProductView;
 import com.spring.JPAHibernate.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductCrudRepository extends CrudRepository<Product, Long> {
+public interface ProductCrudRepository extends CrudRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductUpsertRepository, ProductRepriceRepository {
     Optional<Product> findByName(String name);
-    List<Product> findByNameIn(List<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    <T> Window<T> findAllBy(ScrollPosition position, Limit limit, Sort sort, Class<T> type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // A full export would otherwise push every row it reads into the products L2 region
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Product> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.spring.JPAHibernate.dto.ProductName(p.id, p.name) from products p")
+    Stream<ProductName> streamAllNames();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.spring.JPAHibernate.dto.ProductView(p.id, p.name, p.price, p.createdAt, p.updatedAt, p.version) " +
+            "from products p")
+    Stream<ProductView> streamAllViews();
+
+    @Query("select p.name from products p where p.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query(value = "select p.name from products p where p.name = any(:names)", nativeQuery = true)
+    List<String> findExistingNamesInArray(@Param("names") String[] names);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.spring.JPAHibernate.dto.ProductName(p.id, p.name) from products p where p.id in :ids")
+    List<ProductName> lockNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from products p where p.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from products p where p.id = :id and p.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -1,18 +1,54 @@
 package com.spring.JPAHibernate.repository;
 
+import com.spring.JPAHibernate.dto.ProductView;
 import com.spring.JPAHibernate.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductJpaRepository extends JpaRepository<Product, Long> {
-    List<Product> findByPriceGreaterThan(Double price);
-    List<Product> findByPriceBetween(Double priceBefore, Double priceAfter);
-    List<Product> findAllByOrderByCreatedAtAsc();
-    List<Product> findAllByOrderByCreatedAtDesc();
-    List<Product> findAllByOrderByPriceAsc();
-    List<Product> findAllByOrderByPriceDesc();
-    List<Product> findByNameContaining(String name);
+public interface ProductJpaRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Window<T> findByPriceGreaterThan(Double price, ScrollPosition position, Limit limit, Sort sort, Class<T> type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Window<T> findByPriceBetween(Double priceBefore, Double priceAfter, ScrollPosition position, Limit limit, Sort sort, Class<T> type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Window<T> findAllBy(ScrollPosition position, Limit limit, Sort sort, Class<T> type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    <T> Window<T> findByNameContaining(String name, ScrollPosition position, Limit limit, Sort sort, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<ProductView> findByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<ProductView> findByNameIn(Collection<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Window<ProductView> findByUpdatedAtLessThanEqual(LocalDateTime horizon, ScrollPosition position, Limit limit, Sort sort);
 }
@@ -0,0 +1,17 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.entity.ProductOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEvent, Long> {
+    // Locked so a second relay instance waits instead of publishing the same events out of order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductOutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
@@ -0,0 +1,10 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.dto.ProductView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductRepriceRepository {
+    List<ProductView> repriceByPriceBetween(Double minPrice, Double maxPrice, double factor, LocalDateTime now);
+}
@@ -0,0 +1,65 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.dto.ProductView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.spring.JPAHibernate.repository.NativeProductStatements.isPostgres;
+import static com.spring.JPAHibernate.repository.NativeProductStatements.nativeQuery;
+import static com.spring.JPAHibernate.repository.NativeProductStatements.productPersister;
+
+/**
+ * Reprices every product in the range with a single {@code UPDATE} and reads the new state of the changed
+ * rows from that same statement: {@code UPDATE ... RETURNING} on Postgres, a {@code FINAL TABLE} over the
+ * update elsewhere. The rows come back as values, so the persistence context never holds them.
+ */
+class ProductRepriceRepositoryImpl implements ProductRepriceRepository {
+    private static final String UPDATE = """
+            update products
+            set price = round(cast(price * :factor as numeric(38, 10)), 2), updated_at = :now, version = version + 1
+            where price between :minPrice and :maxPrice""";
+
+    private static final String COLUMNS = "id, name, price, created_at, updated_at, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ProductView> repriceByPriceBetween(Double minPrice, Double maxPrice, double factor, LocalDateTime now) {
+        entityManager.flush();
+
+        String sql = isPostgres(entityManager)
+                ? UPDATE + " returning " + COLUMNS
+                : "select " + COLUMNS + " from final table (" + UPDATE + ")";
+
+        List<Object[]> rows = (List<Object[]>) nativeQuery(entityManager, sql)
+                .addScalar("id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("price", Double.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("version", Long.class)
+                .setParameter("factor", factor)
+                .setParameter("now", now)
+                .setParameter("minPrice", minPrice)
+                .setParameter("maxPrice", maxPrice)
+                .getResultList();
+
+        // Run as a query, the statement skips the cleanup Hibernate does for bulk updates: evict the products
+        // region and invalidate cached query results by hand, and drop stale managed copies
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BulkOperationCleanupAction.schedule(session, productPersister(entityManager));
+        entityManager.clear();
+
+        return rows.stream()
+                .map(row -> new ProductView((Long) row[0], (String) row[1], (Double) row[2],
+                        (LocalDateTime) row[3], (LocalDateTime) row[4], (Long) row[5]))
+                .toList();
+    }
+}
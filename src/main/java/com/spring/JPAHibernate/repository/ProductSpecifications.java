@@ -0,0 +1,69 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.dto.ProductFilter;
+import com.spring.JPAHibernate.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable predicates over {@link Product}. {@link #matching(ProductFilter)} ANDs only the criteria
+ * that are set, so every combination is answered by a single WHERE clause.
+ */
+public final class ProductSpecifications {
+    private static final char ESCAPE = '\\';
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        List<Specification<Product>> criteria = new ArrayList<>();
+
+        if (filter.getMinPrice() != null) {
+            criteria.add(priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            criteria.add(priceAtMost(filter.getMaxPrice()));
+        }
+        if (filter.getName() != null && !filter.getName().isEmpty()) {
+            criteria.add(nameContaining(filter.getName()));
+        }
+        if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+            criteria.add(within("createdAt", filter.getCreatedFrom(), filter.getCreatedTo()));
+        }
+        if (filter.getUpdatedFrom() != null || filter.getUpdatedTo() != null) {
+            criteria.add(within("updatedAt", filter.getUpdatedFrom(), filter.getUpdatedTo()));
+        }
+
+        return Specification.allOf(criteria);
+    }
+
+    public static Specification<Product> priceAtLeast(Double price) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), price);
+    }
+
+    public static Specification<Product> priceAtMost(Double price) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), price);
+    }
+
+    // Case-sensitive like the derived name-containing query, so Postgres can use idx_products_name_trgm
+    // (created by db/postgresql-indexes.sql)
+    public static Specification<Product> nameContaining(String text) {
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("name"), pattern, ESCAPE);
+    }
+
+    // Inclusive lower bound, exclusive upper bound
+    public static Specification<Product> within(String attribute, LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get(attribute), to);
+            } else if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get(attribute), from), cb.lessThan(root.get(attribute), to));
+        };
+    }
+}
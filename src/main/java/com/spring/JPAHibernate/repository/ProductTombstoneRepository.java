@@ -0,0 +1,29 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.entity.ProductTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ProductTombstoneRepository extends CrudRepository<ProductTombstone, Long> {
+    Window<ProductTombstone> findByDeletedAtLessThanEqual(LocalDateTime horizon, ScrollPosition position, Limit limit, Sort sort);
+
+    // Only ids that still have a row get a tombstone; runs before the DELETE in the same transaction
+    @Modifying
+    @Query("insert into product_tombstones (productId, deletedAt) select p.id, :now from products p where p.id in :ids")
+    int recordDeletes(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from product_tombstones t where t.deletedAt < :before")
+    int purgeDeletedBefore(@Param("before") LocalDateTime before);
+}
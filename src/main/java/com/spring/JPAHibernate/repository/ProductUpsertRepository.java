@@ -0,0 +1,7 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.entity.Product;
+
+public interface ProductUpsertRepository {
+    Product upsert(String name, Double price);
+}
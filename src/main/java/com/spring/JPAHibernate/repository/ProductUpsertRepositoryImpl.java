@@ -0,0 +1,118 @@
+package com.spring.JPAHibernate.repository;
+
+import com.spring.JPAHibernate.entity.Product;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.Generator;
+import org.hibernate.jpa.SpecHints;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.spring.JPAHibernate.repository.NativeProductStatements.isPostgres;
+import static com.spring.JPAHibernate.repository.NativeProductStatements.nativeQuery;
+import static com.spring.JPAHibernate.repository.NativeProductStatements.productPersister;
+
+/**
+ * Updates the price of the product holding the name, or inserts it when there is none. The insert takes
+ * its id from the entity's pooled-lo allocator like a persist would, instead of calling the sequence
+ * itself, and still guards against a racing writer: Postgres uses {@code INSERT ... ON CONFLICT}, other
+ * databases a standard {@code MERGE}. Both bump the version of an updated row like a managed update would.
+ * The row is then read once, past any stale copy in the persistence context or the second-level cache.
+ */
+class ProductUpsertRepositoryImpl implements ProductUpsertRepository {
+    private static final String UPDATE = """
+            update products set price = :price, updated_at = :now, version = version + 1
+            where name = :name""";
+
+    private static final String POSTGRES_INSERT = """
+            insert into products (id, name, price, created_at, updated_at, version)
+            values (:id, :name, :price, :now, :now, 0)
+            on conflict (name) do update
+                set price = excluded.price, updated_at = excluded.updated_at, version = products.version + 1
+            returning id""";
+
+    private static final String MERGE_INSERT = """
+            merge into products p
+            using (values (cast(:name as varchar(255)), cast(:price as double precision), cast(:now as timestamp)))
+                as s (name, price, ts)
+            on p.name = s.name
+            when not matched then insert (id, name, price, created_at, updated_at, version)
+                values (:id, s.name, s.price, s.ts, s.ts, 0)""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Product upsert(String name, Double price) {
+        LocalDateTime now = LocalDateTime.now();
+        Long id;
+
+        if (isPostgres(entityManager)) {
+            List<?> updated = nativeQuery(entityManager, UPDATE + " returning id")
+                    .setParameter("name", name)
+                    .setParameter("price", price)
+                    .setParameter("now", now)
+                    .getResultList();
+
+            id = updated.isEmpty()
+                    ? ((Number) nativeQuery(entityManager, POSTGRES_INSERT)
+                            .setParameter("id", nextId())
+                            .setParameter("name", name)
+                            .setParameter("price", price)
+                            .setParameter("now", now)
+                            .getSingleResult()).longValue()
+                    : ((Number) updated.getFirst()).longValue();
+        } else {
+            id = updateAndSelectId(name, price, now);
+            if (id == null) {
+                Object generated = nextId();
+                int inserted = nativeQuery(entityManager, MERGE_INSERT)
+                        .setParameter("id", generated)
+                        .setParameter("name", name)
+                        .setParameter("price", price)
+                        .setParameter("now", now)
+                        .executeUpdate();
+                // Nothing inserted means a racing writer took the name in between, so update its row instead
+                id = inserted == 1 ? (Long) generated : updateAndSelectId(name, price, now);
+            }
+        }
+
+        return reload(id);
+    }
+
+    private Long updateAndSelectId(String name, Double price, LocalDateTime now) {
+        int updated = nativeQuery(entityManager, UPDATE)
+                .setParameter("name", name)
+                .setParameter("price", price)
+                .setParameter("now", now)
+                .executeUpdate();
+
+        return updated == 0 ? null : entityManager.createQuery("select p.id from products p where p.name = :name", Long.class)
+                .setParameter("name", name)
+                .getSingleResult();
+    }
+
+    private Product reload(Long id) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, productPersister(entityManager)));
+        if (managed != null) {
+            entityManager.detach(managed);
+        }
+        return entityManager.find(Product.class, id, Map.of(
+                SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS,
+                SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.REFRESH));
+    }
+
+    private Object nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Generator generator = productPersister(entityManager).getGenerator();
+        return ((BeforeExecutionGenerator) generator).generate(session, null, null, EventType.INSERT);
+    }
+}
@@ -0,0 +1,230 @@
+package com.spring.JPAHibernate.search;
+
+import com.spring.JPAHibernate.dto.ProductName;
+import com.spring.JPAHibernate.event.ProductChangeEvent;
+import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted trigram index over product names, with a sorted name map for prefix lookups.
+ * Substring search intersects the posting lists of the query's trigrams instead of scanning every
+ * name. Queries shorter than a trigram read a posting of their own, kept in result order, so they cost
+ * the limit rather than the catalog. The index is loaded at startup and follows committed writes made through {@code ProductService}.
+ * A reload is built next to the live index and swapped in whole, so searches never see it half-filled.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final int GRAM = 3;
+
+    private final ProductCrudRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Index index = new Index();
+
+    @Autowired
+    public ProductSearchIndex(ProductCrudRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    // Holding the lock while loading makes writes committed meanwhile wait and land in the new index
+    public synchronized void rebuild() {
+        Index rebuilt = new Index();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductName> all = repository.streamAllNames()) {
+                all.forEach(product -> rebuilt.put(product.id(), product.name()));
+            }
+        });
+        index = rebuilt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!event.namesChanged()) {
+            return;
+        }
+
+        event.deleted().forEach(this::remove);
+        event.saved().forEach(product -> put(product.id(), product.name()));
+    }
+
+    public synchronized void put(Long id, String name) {
+        index.put(id, name);
+    }
+
+    public synchronized void remove(Long id) {
+        index.remove(id);
+    }
+
+    /**
+     * Ids of products whose name contains {@code query} (case-insensitive), best matches first:
+     * exact name, then prefix, then word start, then any position; shorter names rank higher.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Index current = index;
+
+        if (normalized.length() < GRAM) {
+            NavigableSet<ShortHit> hits = current.shortPostings.get(normalized);
+            return hits == null ? List.of() : hits.stream().limit(limit).map(ShortHit::id).toList();
+        }
+
+        return candidates(current, normalized).stream()
+                .map(id -> new Match(id, current.names.get(id)))
+                .filter(match -> match.name() != null && normalize(match.name()).contains(normalized))
+                .sorted(Comparator.comparingInt((Match match) -> rank(normalize(match.name()), normalized))
+                        .thenComparingInt(match -> match.name().length())
+                        .thenComparing(Match::id))
+                .limit(limit)
+                .map(Match::id)
+                .toList();
+    }
+
+    public List<String> autocomplete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        Index current = index;
+
+        return current.sortedNames.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values().stream()
+                .map(current.names::get)
+                .filter(name -> name != null)
+                .limit(limit)
+                .toList();
+    }
+
+    public int size() {
+        return index.names.size();
+    }
+
+    private static Set<Long> candidates(Index index, String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> posting = index.postings.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            lists.add(posting);
+        }
+
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> ids = new HashSet<>(lists.getFirst());
+        lists.subList(1, lists.size()).forEach(ids::retainAll);
+        return ids;
+    }
+
+    private static int rank(String name, String query) {
+        if (name.equals(query)) {
+            return 0;
+        } else if (name.startsWith(query)) {
+            return 1;
+        } else if (name.contains(" " + query)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Set<String> shortGrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length < GRAM; length++) {
+            for (int i = 0; i + length <= normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String sortKey(String normalized, Long id) {
+        return normalized + '\u0000' + id;
+    }
+
+    private record Match(Long id, String name) {
+    }
+
+    // Sorts like search() ranks: by match rank for the gram, then name length, then id
+    private record ShortHit(int rank, int length, long id) implements Comparable<ShortHit> {
+        private static final Comparator<ShortHit> ORDER = Comparator.comparingInt(ShortHit::rank)
+                .thenComparingInt(ShortHit::length)
+                .thenComparingLong(ShortHit::id);
+
+        @Override
+        public int compareTo(ShortHit other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Index {
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+        private final Map<String, NavigableSet<ShortHit>> shortPostings = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Long> sortedNames = new ConcurrentSkipListMap<>();
+
+        void put(Long id, String name) {
+            remove(id);
+
+            String normalized = normalize(name);
+            names.put(id, name);
+            sortedNames.put(sortKey(normalized, id), id);
+            trigrams(normalized).forEach(gram -> postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id));
+            shortGrams(normalized).forEach(gram -> shortPostings.computeIfAbsent(gram, g -> new ConcurrentSkipListSet<>())
+                    .add(new ShortHit(rank(normalized, gram), name.length(), id)));
+        }
+
+        void remove(Long id) {
+            String name = names.remove(id);
+
+            if (name == null) {
+                return;
+            }
+
+            String normalized = normalize(name);
+            sortedNames.remove(sortKey(normalized, id));
+            trigrams(normalized).forEach(gram -> postings.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            }));
+            shortGrams(normalized).forEach(gram -> shortPostings.computeIfPresent(gram, (g, hits) -> {
+                hits.remove(new ShortHit(rank(normalized, gram), name.length(), id));
+                return hits.isEmpty() ? null : hits;
+            }));
+        }
+    }
+}
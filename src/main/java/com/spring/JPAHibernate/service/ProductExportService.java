@@ -0,0 +1,93 @@
+package com.spring.JPAHibernate.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to an output stream while reading it through a forward-only cursor.
+ * Each entity is detached once written, so memory use does not grow with the table.
+ */
+@Service
+public class ProductExportService {
+    private final ProductCrudRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    @Autowired
+    public ProductExportService(ProductCrudRepository repository, EntityManager entityManager, ObjectMapper mapper) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public MediaType contentType(String format) {
+        return switch (format) {
+            case "ndjson" -> MediaType.APPLICATION_NDJSON;
+            case "csv"    -> new MediaType("text", "csv", StandardCharsets.UTF_8);
+            default       -> throw new IllegalArgumentException("Export format must be 'ndjson' or 'csv'");
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String format, OutputStream out) throws IOException {
+        contentType(format);
+
+        try (Stream<Product> products = repository.streamAllByOrderByIdAsc()) {
+            if (format.equals("csv")) {
+                writeCsv(products.iterator(), out);
+            } else {
+                writeNdjson(products.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<Product> products, OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            while (products.hasNext()) {
+                Product product = products.next();
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+                entityManager.detach(product);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Product> products, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write("id,name,price,createdAt,updatedAt\n");
+
+        while (products.hasNext()) {
+            Product product = products.next();
+            csv.write(product.getId() + "," + csvField(product.getName()) + "," + product.getPrice() + ","
+                    + product.getCreatedAt() + "," + product.getUpdatedAt() + "\n");
+            entityManager.detach(product);
+        }
+
+        csv.flush();
+    }
+
+    private String csvField(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+package com.spring.JPAHibernate.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ChunkResult;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.exception.UniqueFieldException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a JSON array or newline-delimited stream of products token by token and persists it in
+ * bounded chunks, each in its own transaction, so the full payload is never held in memory.
+ */
+@Service
+public class ProductIngestService {
+    private final ProductService productService;
+    private final ObjectMapper mapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    @Autowired
+    public ProductIngestService(ProductService productService, ObjectMapper mapper, Validator validator,
+                                @Value("${products.ingest.batch-size:500}") int chunkSize) {
+        this.productService = productService;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns one result per chunk. A read or database failure ends up in the result of the chunk
+     * it hit, so callers always learn which of the earlier chunks were committed.
+     */
+    public List<ChunkResult> ingest(InputStream body) {
+        List<ChunkResult> results = new ArrayList<>();
+        List<ProductDto> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = mapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                chunk.add(parser.readValueAs(ProductDto.class));
+
+                if (chunk.size() == chunkSize) {
+                    results.add(persistChunk(results.size(), chunk));
+                    chunk.clear();
+                }
+
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            results.add(ChunkResult.failed(results.size(), chunk.size(), "Malformed product payload: " + e.getOriginalMessage()));
+            return results;
+        } catch (IOException e) {
+            results.add(ChunkResult.failed(results.size(), chunk.size(), "Unable to read product payload: " + e.getMessage()));
+            return results;
+        }
+
+        if (!chunk.isEmpty()) {
+            results.add(persistChunk(results.size(), chunk));
+        }
+
+        return results;
+    }
+
+    private ChunkResult persistChunk(int index, List<ProductDto> chunk) {
+        String violations = chunk.stream()
+                .map(validator::validate)
+                .flatMap(Set::stream)
+                .map(ConstraintViolation::getMessage)
+                .distinct()
+                .collect(Collectors.joining(", "));
+
+        if (!violations.isEmpty()) {
+            return ChunkResult.failed(index, chunk.size(), violations);
+        }
+
+        try {
+            productService.saveAll(List.copyOf(chunk));
+            return ChunkResult.saved(index, chunk.size());
+        } catch (UniqueFieldException e) {
+            return ChunkResult.failed(index, chunk.size(), e.getMessage());
+        } catch (DataAccessException e) {
+            return ChunkResult.failed(index, chunk.size(), "Unable to store products: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.spring.JPAHibernate.service;
+
+import com.spring.JPAHibernate.config.CacheConfig;
+import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds which of a set of product names are already taken, reading only the name column.
+ * Only "not present" answers are cached, so repeated checks of free names skip the database. A taken
+ * name is always confirmed by the database: a cached positive could outlive the rename or delete that
+ * freed it (the read-through put racing with their evict) and reject a valid write. A stale negative
+ * is harmless, since the unique constraint still rejects the duplicate at flush.
+ * Lookups that do reach it are split into chunks so no single statement carries an unbounded
+ * IN list; the {@code array} strategy binds each chunk as one array parameter ({@code name = any(?)}).
+ */
+@Component
+public class ProductNameLookup {
+    private final ProductCrudRepository repository;
+    private final Cache cache;
+    private final int chunkSize;
+    private final boolean arrayStrategy;
+
+    @Autowired
+    public ProductNameLookup(ProductCrudRepository repository, CacheManager cacheManager,
+                             @Value("${products.name-check.chunk-size:1000}") int chunkSize,
+                             @Value("${products.name-check.strategy:in}") String strategy) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Name check chunk size must be at least 1");
+        }
+
+        this.repository = repository;
+        this.cache = cacheManager.getCache(CacheConfig.PRODUCT_NAMES);
+        this.chunkSize = chunkSize;
+        this.arrayStrategy = switch (strategy) {
+            case "in"    -> false;
+            case "array" -> true;
+            default      -> throw new IllegalArgumentException("Name check strategy must be 'in' or 'array'");
+        };
+    }
+
+    public List<String> findExistingNames(List<String> names) {
+        List<String> existingNames = new ArrayList<>();
+        List<String> unknownNames = new ArrayList<>();
+
+        for (String name : names) {
+            if (cache.get(name) == null) {
+                unknownNames.add(name);
+            }
+        }
+
+        for (int from = 0; from < unknownNames.size(); from += chunkSize) {
+            List<String> chunk = unknownNames.subList(from, Math.min(from + chunkSize, unknownNames.size()));
+            Set<String> found = new HashSet<>(arrayStrategy
+                    ? repository.findExistingNamesInArray(chunk.toArray(String[]::new))
+                    : repository.findExistingNames(chunk));
+
+            chunk.stream()
+                    .filter(name -> !found.contains(name))
+                    .forEach(name -> cache.put(name, false));
+            existingNames.addAll(found);
+        }
+
+        return existingNames;
+    }
+
+    public void evict(Collection<String> names) {
+        names.forEach(cache::evict);
+    }
+
+    // For set-based deletes, which do not know the names they removed
+    public void evictAll() {
+        cache.clear();
+    }
+}
@@ -1,38 +1,204 @@
 package com.spring.JPAHibernate.service;
 
+import com.spring.JPAHibernate.dto.ProductFilter;
+import com.spring.JPAHibernate.dto.ProductView;
 import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
+import com.spring.JPAHibernate.readmodel.ProductReadModel;
 import com.spring.JPAHibernate.repository.ProductJpaRepository;
+import com.spring.JPAHibernate.repository.ProductSpecifications;
+import com.spring.JPAHibernate.search.ProductSearchIndex;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Read side of the catalog. Endpoints get {@link ProductView} rows built by the query itself; the
+ * {@code List<Product>} overloads return the first page as entities for in-process callers.
+ * <p>
+ * With {@code products.read-model.enabled}, price range and ordered pages come from the in-memory
+ * {@link ProductReadModel}. Those methods open no transaction of their own, so that path never takes a
+ * connection; when the read model is off or still loading they query the database in a read-only
+ * transaction like the rest of the class, so replica routing and the read-only session still apply.
+ */
 @Service
+@Transactional(readOnly = true)
 public class ProductQueryService {
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price", "createdAt", "updatedAt");
+
     private final ProductJpaRepository repository;
+    private final KeysetPaging paging;
+    private final ProductSearchIndex searchIndex;
+    private final ProductReadModel readModel;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
-    public ProductQueryService(ProductJpaRepository repository) {
+    public ProductQueryService(ProductJpaRepository repository, KeysetPaging paging, ProductSearchIndex searchIndex,
+                               ObjectProvider<ProductReadModel> readModel, PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.paging = paging;
+        this.searchIndex = searchIndex;
+        this.readModel = readModel.getIfAvailable();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     public List<Product> findByPriceGreaterThan(Double price){
-        return repository.findByPriceGreaterThan(price);
+        return findByPriceGreaterThan(price, null, null, Product.class).getContent();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Window<ProductView> findByPriceGreaterThan(Double price, String cursor, Integer limit){
+        if (readModelReady()) {
+            return readModel.findByPriceGreaterThan(price, paging.position(cursor, BY_ID), paging.limit(limit).max());
+        }
+        return readOnlyTransaction.execute(status -> findByPriceGreaterThan(price, cursor, limit, ProductView.class));
+    }
+
+    private <T> Window<T> findByPriceGreaterThan(Double price, String cursor, Integer limit, Class<T> type){
+        return repository.findByPriceGreaterThan(price, paging.position(cursor, BY_ID), paging.limit(limit), BY_ID, type);
     }
 
     public List<Product> findByPriceBetween(Double minPrice, Double maxPrice){
-        return repository.findByPriceBetween(minPrice, maxPrice);
+        return findByPriceBetween(minPrice, maxPrice, null, null, Product.class).getContent();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Window<ProductView> findByPriceBetween(Double minPrice, Double maxPrice, String cursor, Integer limit){
+        if (readModelReady()) {
+            return readModel.findByPriceBetween(minPrice, maxPrice, paging.position(cursor, BY_ID), paging.limit(limit).max());
+        }
+        return readOnlyTransaction.execute(status -> findByPriceBetween(minPrice, maxPrice, cursor, limit, ProductView.class));
+    }
+
+    private <T> Window<T> findByPriceBetween(Double minPrice, Double maxPrice, String cursor, Integer limit, Class<T> type){
+        return repository.findByPriceBetween(minPrice, maxPrice, paging.position(cursor, BY_ID), paging.limit(limit), BY_ID, type);
     }
 
     public List<Product> findAllOrderBy(String value, boolean ascending){
+        return findAllOrderBy(value, ascending, null, null, Product.class).getContent();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Window<ProductView> findAllOrderBy(String value, boolean ascending, String cursor, Integer limit){
+        if (readModelReady()) {
+            Sort sort = orderBy(value, ascending);
+            return paging.ordered(
+                    readModel.findAllOrderBy(value, ascending, paging.position(cursor, sort), paging.limit(limit).max()), sort);
+        }
+        return paging.ordered(readOnlyTransaction.execute(status -> findAllOrderBy(value, ascending, cursor, limit, ProductView.class)),
+                orderBy(value, ascending));
+    }
+
+    private <T> Window<T> findAllOrderBy(String value, boolean ascending, String cursor, Integer limit, Class<T> type){
+        Sort sort = orderBy(value, ascending);
+        return repository.findAllBy(paging.position(cursor, sort), paging.limit(limit), sort, type);
+    }
+
+    private Sort orderBy(String value, boolean ascending){
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        // The id tie-breaker follows the same direction so the (value, id) index can be read in order
         return switch (value) {
-            case "createdAt" -> ascending ? repository.findAllByOrderByCreatedAtAsc() : repository.findAllByOrderByCreatedAtDesc();
-            case "price"     -> ascending ? repository.findAllByOrderByPriceAsc() : repository.findAllByOrderByPriceDesc();
-            default          -> throw new IllegalArgumentException("Sort field must be 'createdAt' or 'price'");
+            case "createdAt", "price" -> Sort.by(direction, value, "id");
+            default                   -> throw new IllegalArgumentException("Sort field must be 'createdAt' or 'price'");
         };
     }
 
+    private boolean readModelReady(){
+        return readModel != null && readModel.isReady();
+    }
+
     public List<Product> findByNameContaining(String name){
-        return repository.findByNameContaining(name);
+        return findByNameContaining(name, null, null, Product.class).getContent();
+    }
+
+    public Window<ProductView> findByNameContaining(String name, String cursor, Integer limit){
+        return findByNameContaining(name, cursor, limit, ProductView.class);
+    }
+
+    private <T> Window<T> findByNameContaining(String name, String cursor, Integer limit, Class<T> type){
+        return repository.findByNameContaining(name, paging.position(cursor, BY_ID), paging.limit(limit), BY_ID, type);
+    }
+
+    public Window<ProductView> findAll(ProductFilter filter, String cursor, Integer limit){
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+
+        Sort sort = sortOf(filter.getSort());
+        Limit pageSize = paging.limit(limit);
+
+        return paging.ordered(repository.findBy(ProductSpecifications.matching(filter), query -> query
+                .as(ProductView.class)
+                .sortBy(sort)
+                .limit(pageSize.max())
+                .scroll(paging.position(cursor, sort))), sort);
+    }
+
+    // Always ends with id so keyset positions are unique
+    private Sort sortOf(List<String> fields){
+        if (fields == null || fields.isEmpty()) {
+            return BY_ID;
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+
+        for (String field : fields) {
+            boolean descending = field.startsWith("-");
+            String property = descending ? field.substring(1) : field;
+
+            if (!SORTABLE.contains(property)) {
+                throw new IllegalArgumentException("Sort field must be one of " + SORTABLE);
+            }
+            if (orders.stream().anyMatch(order -> order.getProperty().equals(property))) {
+                throw new IllegalArgumentException("Duplicate sort field '" + property + "'");
+            }
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(new Sort.Order(orders.getLast().getDirection(), "id"));
+        }
+
+        return Sort.by(orders);
+    }
+
+    // Answered by the index; only the hits are loaded, in the repository's own read-only transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ProductView> search(String query, Integer limit){
+        List<Long> ids = searchIndex.search(query, paging.limit(limit).max());
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // One IN load for the hits, then restore the index's ranking
+        Map<Long, Integer> rank = ids.stream().collect(Collectors.toMap(Function.identity(), ids::indexOf));
+
+        return repository.findByIdIn(ids).stream()
+                .sorted(Comparator.comparing(product -> rank.get(product.id())))
+                .toList();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<String> autocomplete(String prefix, Integer limit){
+        return searchIndex.autocomplete(prefix, paging.limit(limit).max());
     }
 }
@@ -1,56 +1,159 @@
 package com.spring.JPAHibernate.service;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spring.JPAHibernate.dto.PartialProductDto;
+import com.spring.JPAHibernate.dto.ProductFilter;
+import com.spring.JPAHibernate.dto.ProductName;
 import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductUpdateDto;
+import com.spring.JPAHibernate.dto.ProductView;
 import com.spring.JPAHibernate.entity.Product;
-import com.spring.JPAHibernate.exception.ProductUpdateException;
+import com.spring.JPAHibernate.entity.ProductTombstone;
+import com.spring.JPAHibernate.event.ProductChangeEvent;
 import com.spring.JPAHibernate.exception.UniqueFieldException;
+import com.spring.JPAHibernate.mapping.PatchMerger;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
 import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import com.spring.JPAHibernate.repository.ProductSpecifications;
+import com.spring.JPAHibernate.repository.ProductTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
+    private static final Sort BY_ID = Sort.by("id");
+    private static final PatchMerger<ProductDto, Product> REPLACE = PatchMerger.of(ProductDto.class, Product.class);
+    private static final PatchMerger<PartialProductDto, Product> PATCH = PatchMerger.of(PartialProductDto.class, Product.class);
+
     private final ProductCrudRepository repository;
+    private final ProductTombstoneRepository tombstones;
     private final ObjectMapper mapper;
+    private final EntityManager entityManager;
+    private final ProductNameLookup nameLookup;
+    private final KeysetPaging paging;
+    private final ApplicationEventPublisher events;
+    private final int ingestBatchSize;
+    private final int bulkUpdateMaxSize;
 
     @Autowired
-    public ProductService(ProductCrudRepository repository, ObjectMapper mapper) {
+    public ProductService(ProductCrudRepository repository, ProductTombstoneRepository tombstones,
+                          ObjectMapper mapper, EntityManager entityManager,
+                          ProductNameLookup nameLookup, KeysetPaging paging, ApplicationEventPublisher events,
+                          @Value("${products.ingest.batch-size:500}") int ingestBatchSize,
+                          @Value("${products.bulk-update.max-size:10000}") int bulkUpdateMaxSize) {
         this.repository = repository;
+        this.tombstones = tombstones;
         this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.nameLookup = nameLookup;
+        this.paging = paging;
+        this.events = events;
+        this.ingestBatchSize = ingestBatchSize;
+        this.bulkUpdateMaxSize = bulkUpdateMaxSize;
     }
 
+    @Transactional
     public Product save(ProductDto productDto){
-        checkUniqueName(productDto.getName());
-
         Product product = mapper.convertValue(productDto, Product.class);
-        return repository.save(product);
+        entityManager.persist(product);
+        flushUniqueName("The product name '" + productDto.getName() + "' already exists.");
+        nameLookup.evict(List.of(product.getName()));
+        events.publishEvent(ProductChangeEvent.saved(List.of(product)));
+
+        return product;
+    }
+
+    @Transactional
+    public Product upsert(ProductDto productDto){
+        Product product = repository.upsert(productDto.getName(), productDto.getPrice());
+        nameLookup.evict(List.of(product.getName()));
+        events.publishEvent(ProductChangeEvent.saved(List.of(product)));
+
+        return product;
     }
 
-    private void checkUniqueName(String name){
-        repository.findByName(name)
-                .ifPresent(n -> {
-                    throw new UniqueFieldException("The product name '" + name + "' already exists.");
-                });
+    // The unique constraint on products.name is the source of truth, so a conflict costs no extra SELECT
+    private void flushUniqueName(String conflictMessage){
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            if (isUniqueNameViolation(e)) {
+                entityManager.clear();
+                throw new UniqueFieldException(conflictMessage);
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUniqueNameViolation(Throwable e){
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        && violation.getConstraintName() != null
+                        && violation.getConstraintName().toLowerCase().contains(Product.NAME_CONSTRAINT);
+            }
+        }
+        return false;
     }
 
+    @Transactional
     public Iterable<Product> saveAll(List<ProductDto> productDtoList) {
+        return saveAll(productDtoList, ingestBatchSize);
+    }
+
+    @Transactional
+    public Iterable<Product> saveAll(List<ProductDto> productDtoList, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+
         validateNoDuplicatesInInput(productDtoList);
         validateNoExistingNames(productDtoList);
 
-        return productDtoList.stream()
-                .map(dto -> mapper.convertValue(dto, Product.class))
-                .collect(Collectors.collectingAndThen(Collectors.toList(), repository::saveAll));
+        List<Product> products = new ArrayList<>(productDtoList.size());
+
+        for (ProductDto dto : productDtoList) {
+            Product product = mapper.convertValue(dto, Product.class);
+            entityManager.persist(product);
+            products.add(product);
+
+            // Flush each chunk as JDBC batches and drop it from the persistence context
+            if (products.size() % batchSize == 0) {
+                flushUniqueName("Product names already exist in DB.");
+                entityManager.clear();
+            }
+        }
+
+        flushUniqueName("Product names already exist in DB.");
+        entityManager.clear();
+        nameLookup.evict(products.stream().map(Product::getName).toList());
+        events.publishEvent(ProductChangeEvent.saved(products));
+
+        return products;
     }
 
     private void validateNoDuplicatesInInput(List<ProductDto> productDtoList) {
@@ -70,52 +173,233 @@ public class ProductService {
                 .map(ProductDto::getName)
                 .toList();
 
-        List<String> existingNames = repository.findByNameIn(names).stream()
-                .map(Product::getName)
-                .toList();
+        List<String> existingNames = nameLookup.findExistingNames(names);
 
         if (!existingNames.isEmpty()) {
             throw new UniqueFieldException("Product names already exist in DB: " + existingNames);
         }
     }
 
+    // Served from the second-level cache region of Product, which every write path keeps current
     public Product findById(Long id){
         return repository.findById(id).orElseThrow(() -> new NoSuchElementException("The product with id " + id + " was not found."));
     }
 
-    public Iterable<Product> findAll(){
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public Window<ProductView> findAll(String cursor, Integer limit){
+        return repository.findAllBy(paging.position(cursor, BY_ID), paging.limit(limit), BY_ID, ProductView.class);
     }
 
+    @Transactional
     public <T> Product updateProduct(Long id, T newProduct) {
+        return updateProduct(id, newProduct, null);
+    }
+
+    /**
+     * Applies the update only if the product is still at {@code expectedVersion} (any version when null).
+     * An update committed concurrently after the load still fails at flush on the version column.
+     */
+    @Transactional
+    public <T> Product updateProduct(Long id, T newProduct, Long expectedVersion) {
         Product product = findById(id);
 
-        try {
-            if (newProduct instanceof ProductDto){
-                checkUniqueName(((ProductDto) newProduct).getName());
-                mapper.updateValue(product, newProduct);
-            } else if (newProduct instanceof PartialProductDto) {
-                checkUniqueName(((PartialProductDto) newProduct).getName());
-                ObjectMapper patchMapper = mapper.copy();
-
-                patchMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-                patchMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-
-                String json = patchMapper.writeValueAsString(newProduct);
-                patchMapper.readerForUpdating(product).readValue(json);
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
+
+        String previousName = product.getName();
+        String name = null;
+
+        if (newProduct instanceof ProductDto dto){
+            name = dto.getName();
+            REPLACE.merge(dto, product);
+        } else if (newProduct instanceof PartialProductDto dto) {
+            name = dto.getName();
+            PATCH.merge(dto, product);
+        }
+
+        flushUniqueName("The product name '" + name + "' already exists.");
+        nameLookup.evict(List.of(previousName, product.getName()));
+        events.publishEvent(ProductChangeEvent.saved(List.of(product)));
+
+        return product;
+    }
+
+    @Transactional
+    public List<Product> updateAll(List<ProductUpdateDto> updates) {
+        if (updates.size() > bulkUpdateMaxSize) {
+            throw new IllegalArgumentException("At most " + bulkUpdateMaxSize + " products can be updated per request");
+        }
+
+        Map<Long, ProductUpdateDto> updatesById = new LinkedHashMap<>();
+        for (ProductUpdateDto update : updates) {
+            if (updatesById.put(update.getId(), update) != null) {
+                throw new IllegalArgumentException("Duplicate product id in input: " + update.getId());
             }
+        }
+
+        // One IN query for every target instead of a findById per product
+        Map<Long, Product> products = new HashMap<>();
+        repository.findAllById(updatesById.keySet()).forEach(product -> products.put(product.getId(), product));
+
+        List<Long> missing = updatesById.keySet().stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new NoSuchElementException("Products not found with ids: " + missing);
+        }
+
+        validateRenames(updatesById, products);
+
+        List<String> touchedNames = new ArrayList<>();
+        List<Product> updated = new ArrayList<>(updatesById.size());
+
+        updatesById.forEach((id, update) -> {
+            Product product = products.get(id);
+            touchedNames.add(product.getName());
+            updated.add(PATCH.merge(update, product));
+        });
+
+        // Dirty checking emits the UPDATEs here, grouped into JDBC batches
+        flushUniqueName("Product names already exist in DB.");
+        updated.forEach(product -> touchedNames.add(product.getName()));
+        nameLookup.evict(touchedNames);
+        events.publishEvent(ProductChangeEvent.saved(updated));
+
+        return updated;
+    }
+
+    private void validateRenames(Map<Long, ProductUpdateDto> updatesById, Map<Long, Product> products) {
+        List<String> newNames = updatesById.values().stream()
+                .filter(update -> update.getName() != null)
+                .filter(update -> !update.getName().equals(products.get(update.getId()).getName()))
+                .map(ProductUpdateDto::getName)
+                .toList();
+
+        Set<String> seen = new HashSet<>();
+        List<String> duplicates = newNames.stream().filter(name -> !seen.add(name)).toList();
+
+        if (!duplicates.isEmpty()) {
+            throw new UniqueFieldException("Duplicate product names in input: " + duplicates);
+        }
+
+        List<String> existingNames = nameLookup.findExistingNames(newNames);
+
+        if (!existingNames.isEmpty()) {
+            throw new UniqueFieldException("Product names already exist in DB: " + existingNames);
+        }
+    }
 
-            return repository.save(product);
-        } catch (JsonProcessingException e){
-            throw new ProductUpdateException("Error on updating product: ", e);
+    @Transactional
+    public int repriceBetween(Double minPrice, Double maxPrice, double percent) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        if (!Double.isFinite(percent) || percent <= -100) {
+            throw new IllegalArgumentException("Percent must be a finite number greater than -100");
         }
+
+        // One UPDATE that also returns the rows it changed, so the event carries exactly those rows
+        List<ProductView> repriced = repository.repriceByPriceBetween(minPrice, maxPrice, 1 + percent / 100,
+                LocalDateTime.now());
+        events.publishEvent(ProductChangeEvent.repriced(repriced));
+
+        return repriced.size();
     }
 
+    @Transactional
     public void deleteById(Long id){
-        if (repository.existsById(id)){
-            repository.deleteById(id);
-        } else {
+        deleteById(id, null);
+    }
+
+    @Transactional
+    public void deleteById(Long id, Long expectedVersion){
+        if (expectedVersion == null) {
+            if (deleteByIds(List.of(id)) == 0) {
+                throw new NoSuchElementException("Product not found with id: " + id);
+            }
+            return;
+        }
+
+        List<ProductName> existing = repository.lockNamesByIdIn(List.of(id));
+
+        if (existing.isEmpty()) {
             throw new NoSuchElementException("Product not found with id: " + id);
         }
+
+        // The version is part of the DELETE, so an update committed after the check is never lost
+        if (repository.deleteByIdAndVersion(id, expectedVersion) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
+
+        entityManager.persist(new ProductTombstone(id, LocalDateTime.now()));
+
+        nameLookup.evict(existing.stream().map(ProductName::name).toList());
+        events.publishEvent(ProductChangeEvent.deleted(List.of(id)));
+    }
+
+    @Transactional
+    public int deleteAllById(List<Long> ids){
+        if (ids.size() > bulkUpdateMaxSize) {
+            throw new IllegalArgumentException("At most " + bulkUpdateMaxSize + " products can be deleted per request");
+        }
+
+        return deleteByIds(ids);
+    }
+
+    // Only the ids that exist get a tombstone, are deleted and are published; locking their rows keeps a
+    // concurrent delete from turning any of them into a phantom deletion
+    private int deleteByIds(Collection<Long> ids){
+        List<ProductName> existing = repository.lockNamesByIdIn(ids);
+
+        if (existing.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> existingIds = existing.stream().map(ProductName::id).toList();
+        tombstones.recordDeletes(existingIds, LocalDateTime.now());
+        int deleted = repository.deleteAllByIdIn(existingIds);
+        nameLookup.evict(existing.stream().map(ProductName::name).toList());
+        events.publishEvent(ProductChangeEvent.deleted(existingIds));
+
+        return deleted;
+    }
+
+    @Transactional
+    public long deleteMatching(Double minPrice, Double maxPrice, LocalDateTime createdBefore){
+        if (minPrice == null && maxPrice == null && createdBefore == null) {
+            throw new IllegalArgumentException("At least one of minPrice, maxPrice or createdBefore is required");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+
+        ProductFilter criteria = new ProductFilter();
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+        criteria.setCreatedTo(createdBefore);
+
+        // Only the matching ids are read, so exactly the rows that get a tombstone are deleted
+        List<Long> ids = matchingIds(ProductSpecifications.matching(criteria));
+        LocalDateTime now = LocalDateTime.now();
+        long deleted = 0;
+
+        for (int from = 0; from < ids.size(); from += bulkUpdateMaxSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + bulkUpdateMaxSize, ids.size()));
+            tombstones.recordDeletes(chunk, now);
+            deleted += repository.deleteAllByIdIn(chunk);
+        }
+        entityManager.clear();
+        nameLookup.evictAll();
+        events.publishEvent(ProductChangeEvent.deleted(ids));
+
+        return deleted;
+    }
+
+    private List<Long> matchingIds(Specification<Product> specification){
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        return entityManager.createQuery(query.select(root.get("id")).where(specification.toPredicate(root, query, builder)))
+                .getResultList();
     }
 }
@@ -0,0 +1,128 @@
+package com.spring.JPAHibernate.service;
+
+import com.spring.JPAHibernate.dto.ProductChange;
+import com.spring.JPAHibernate.dto.ProductChanges;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.entity.ProductTombstone;
+import com.spring.JPAHibernate.exception.CursorExpiredException;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
+import com.spring.JPAHibernate.repository.ProductJpaRepository;
+import com.spring.JPAHibernate.repository.ProductTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental sync for catalog mirrors: products created or updated and tombstones of products deleted
+ * after a watermark, merged in (updatedAt, id) order. Both sides are keyset reads on their own
+ * (timestamp, id) index, so a page costs the same whatever the catalog size.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductSyncService {
+    private static final Sort BY_UPDATED_AT = Sort.by("updatedAt", "id");
+    private static final Sort BY_DELETED_AT = Sort.by("deletedAt", "productId");
+    private static final Comparator<ProductChange> CHANGE_ORDER =
+            Comparator.comparing(ProductChange::updatedAt).thenComparing(ProductChange::id);
+
+    private final ProductJpaRepository repository;
+    private final ProductTombstoneRepository tombstones;
+    private final KeysetPaging paging;
+    private final Duration safetyLag;
+    private final Duration tombstoneRetention;
+
+    @Autowired
+    public ProductSyncService(ProductJpaRepository repository, ProductTombstoneRepository tombstones, KeysetPaging paging,
+                              @Value("${products.sync.safety-lag:5s}") Duration safetyLag,
+                              @Value("${products.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.repository = repository;
+        this.tombstones = tombstones;
+        this.paging = paging;
+        this.safetyLag = safetyLag;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Changes after {@code cursor}, or after {@code since} for a first call, or from the beginning
+     * when neither is given.
+     */
+    public ProductChanges changes(LocalDateTime since, String cursor, Integer limit) {
+        if (since != null && cursor != null && !cursor.isBlank()) {
+            throw new IllegalArgumentException("Use either since or cursor, not both");
+        }
+
+        int max = paging.limit(limit).max();
+        Map<String, Object> after = since != null
+                ? keys("updatedAt", since, "id", Long.MAX_VALUE)
+                : paging.position(cursor, BY_UPDATED_AT).getKeys();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!after.isEmpty() && ((LocalDateTime) after.get("updatedAt")).isBefore(now.minus(tombstoneRetention))) {
+            throw new CursorExpiredException("Deletions are kept for " + tombstoneRetention
+                    + "; this watermark is older, sync again from the beginning.");
+        }
+
+        // updated_at is stamped before commit; stopping short of the newest rows keeps a slow
+        // transaction from committing a change behind a cursor that has already moved past it
+        LocalDateTime horizon = now.minus(safetyLag);
+
+        Map<String, Object> afterTombstone = after.isEmpty()
+                ? after
+                : keys("deletedAt", after.get("updatedAt"), "productId", after.get("id"));
+
+        Window<ProductView> updated = repository.findByUpdatedAtLessThanEqual(
+                horizon, position(after), Limit.of(max), BY_UPDATED_AT);
+        Window<ProductTombstone> deleted = tombstones.findByDeletedAtLessThanEqual(
+                horizon, position(afterTombstone), Limit.of(max), BY_DELETED_AT);
+
+        // Each side holds its first max entries after the cursor, so the first max of the union are exact
+        List<ProductChange> changes = new ArrayList<>(updated.size() + deleted.size());
+        updated.forEach(product -> changes.add(ProductChange.of(product)));
+        deleted.forEach(tombstone -> changes.add(ProductChange.deleted(tombstone.getProductId(), tombstone.getDeletedAt())));
+        changes.sort(CHANGE_ORDER);
+
+        boolean hasMore = changes.size() > max || updated.hasNext() || deleted.hasNext();
+        List<ProductChange> page = changes.size() > max ? changes.subList(0, max) : changes;
+
+        return new ProductChanges(List.copyOf(page), page.isEmpty() ? resume(after) : resume(page.getLast()), hasMore);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${products.sync.tombstone-purge-interval:1h}")
+    public void purgeTombstones() {
+        tombstones.purgeDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+    }
+
+    private static ScrollPosition position(Map<String, Object> after) {
+        return after.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(after);
+    }
+
+    private static Map<String, Object> keys(String timestamp, Object timestampValue, String id, Object idValue) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(timestamp, timestampValue);
+        keys.put(id, idValue);
+        return keys;
+    }
+
+    private String resume(Map<String, Object> after) {
+        return after.isEmpty() ? null : paging.encode(after);
+    }
+
+    private String resume(ProductChange last) {
+        return paging.encode(keys("updatedAt", last.updatedAt(), "id", last.id()));
+    }
+}
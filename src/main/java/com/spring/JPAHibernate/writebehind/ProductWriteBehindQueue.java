@@ -0,0 +1,318 @@
+package com.spring.JPAHibernate.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.dto.WriteStatus;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.exception.UniqueFieldException;
+import com.spring.JPAHibernate.exception.WriteQueueFullException;
+import com.spring.JPAHibernate.repository.ProductJpaRepository;
+import com.spring.JPAHibernate.service.ProductNameLookup;
+import com.spring.JPAHibernate.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.exception.JDBCConnectionException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind mode for {@code POST /products}. A write is journaled, fsynced together with
+ * concurrent writes and acknowledged with a ticket. A single writer thread then drains the bounded
+ * queue into {@link ProductService#saveAll} batches, so commits are paid per batch, not per request.
+ * When the queue is full, callers get {@link WriteQueueFullException} instead of waiting.
+ * <p>
+ * Writes that were acknowledged but not committed before a crash are replayed from the journal on the next start.
+ * A replayed write whose name is already stored with the same price is the write itself, which landed but
+ * lost its commit mark, so it is reported as landed rather than rejected as a duplicate.
+ */
+@Component
+@ConditionalOnProperty(name = "products.write-behind.enabled", havingValue = "true")
+public class ProductWriteBehindQueue {
+    private static final Logger log = LoggerFactory.getLogger(ProductWriteBehindQueue.class);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final ProductService service;
+    private final ProductNameLookup nameLookup;
+    private final ProductJpaRepository repository;
+    private final ProductWriteJournal journal;
+    private final BlockingQueue<ProductWriteJournal.Entry> queue;
+    private final int batchSize;
+    private final Cache<Long, WriteStatus> statuses;
+    private final Thread writer;
+
+    private List<ProductWriteJournal.Entry> recovered;
+    private volatile boolean running = true;
+
+    @Autowired
+    public ProductWriteBehindQueue(ProductService service, ProductNameLookup nameLookup, ProductJpaRepository repository,
+                                   ObjectMapper mapper,
+                                   @Value("${products.write-behind.capacity:10000}") int capacity,
+                                   @Value("${products.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${products.write-behind.journal}") Path journalPath,
+                                   @Value("${products.write-behind.journal-compact-size:64MB}") DataSize journalCompactSize,
+                                   @Value("${products.write-behind.status-retention:10m}") Duration statusRetention)
+            throws IOException {
+        this.service = service;
+        this.nameLookup = nameLookup;
+        this.repository = repository;
+        this.journal = new ProductWriteJournal(journalPath, mapper, journalCompactSize.toBytes());
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.statuses = Caffeine.newBuilder().expireAfterWrite(statusRetention).build();
+        this.writer = Thread.ofPlatform().name("product-write-behind").daemon().unstarted(this::drain);
+
+        this.recovered = journal.recover();
+        recovered.forEach(entry -> statuses.put(entry.ticket(), WriteStatus.pending(entry.ticket())));
+
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} journaled product writes", recovered.size());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Returns once the write is durable in the journal; it lands in the database asynchronously.
+     */
+    public WriteStatus enqueue(ProductDto product) {
+        ProductWriteJournal.Entry entry;
+        long offset;
+
+        try {
+            // Journal order must match queue order, since a commit mark covers every lower ticket
+            synchronized (journal) {
+                if (!running || queue.remainingCapacity() == 0) {
+                    throw new WriteQueueFullException("The write queue is full, retry later.");
+                }
+
+                entry = journal.append(product);
+                offset = journal.written();
+                statuses.put(entry.ticket(), WriteStatus.pending(entry.ticket()));
+                queue.add(entry);
+            }
+            journal.force(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to journal the product write", e);
+        }
+
+        WriteStatus status = statuses.getIfPresent(entry.ticket());
+        return status == null ? WriteStatus.pending(entry.ticket()) : status;
+    }
+
+    public Optional<WriteStatus> status(long ticket) {
+        return Optional.ofNullable(statuses.getIfPresent(ticket));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void drain() {
+        for (int from = 0; from < recovered.size(); from += batchSize) {
+            if (!write(recovered.subList(from, Math.min(from + batchSize, recovered.size())), true)) {
+                return;
+            }
+        }
+        recovered = null;
+
+        List<ProductWriteJournal.Entry> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                ProductWriteJournal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                // Whatever piled up while the previous batch committed goes into this one
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!write(batch, false)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private boolean write(List<ProductWriteJournal.Entry> batch, boolean replay) {
+        try {
+            if (!retrying(() -> store(batch, replay)) || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to store {} queued products", batch.size(), e);
+            batch.stream()
+                    .filter(entry -> statuses.getIfPresent(entry.ticket()) instanceof WriteStatus status
+                            && status.state() == WriteStatus.State.PENDING)
+                    .forEach(entry -> statuses.put(entry.ticket(), rejected(entry, e)));
+        }
+
+        try {
+            journal.commit(batch.getLast().ticket());
+        } catch (IOException e) {
+            log.error("Unable to mark product writes up to ticket {} as committed", batch.getLast().ticket(), e);
+        }
+        return true;
+    }
+
+    // Retries transient database failures until stopped; a batch left unwritten stays in the journal for the next start
+    private boolean retrying(Runnable work) {
+        while (true) {
+            try {
+                work.run();
+                return true;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    throw e;
+                }
+                log.warn("Writing queued products failed, retrying in {}", RETRY_DELAY, e);
+            }
+
+            try {
+                Thread.sleep(RETRY_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    // Lost or unavailable connections and lock or statement timeouts; anything else fails the same way again
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof JDBCConnectionException || cause instanceof LockAcquisitionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void store(List<ProductWriteJournal.Entry> batch, boolean replay) {
+        List<ProductWriteJournal.Entry> accepted = rejectTakenNames(batch, replay);
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            Iterator<Product> saved = service.saveAll(accepted.stream().map(ProductWriteJournal.Entry::product).toList())
+                    .iterator();
+            accepted.forEach(entry -> statuses.put(entry.ticket(), WriteStatus.landed(entry.ticket(), saved.next().getId())));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+
+            // A synchronous write took one of the names after the check, or a product the database refuses; isolate it
+            log.warn("Storing {} queued products failed, storing them one by one", accepted.size(), e);
+            for (ProductWriteJournal.Entry entry : accepted) {
+                if (!retrying(() -> storeOne(entry))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void storeOne(ProductWriteJournal.Entry entry) {
+        try {
+            Product product = service.save(entry.product());
+            statuses.put(entry.ticket(), WriteStatus.landed(entry.ticket(), product.getId()));
+        } catch (UniqueFieldException conflict) {
+            statuses.put(entry.ticket(), WriteStatus.rejected(entry.ticket(), conflict.getMessage()));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            statuses.put(entry.ticket(), rejected(entry, e));
+        }
+    }
+
+    private static WriteStatus rejected(ProductWriteJournal.Entry entry, Exception e) {
+        return WriteStatus.rejected(entry.ticket(),
+                "Unable to store the product: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+    }
+
+    private List<ProductWriteJournal.Entry> rejectTakenNames(List<ProductWriteJournal.Entry> batch, boolean replay) {
+        Set<String> existing = new HashSet<>(nameLookup.findExistingNames(
+                batch.stream().map(entry -> entry.product().getName()).distinct().toList()));
+        Map<String, ProductView> stored = replay && !existing.isEmpty()
+                ? repository.findByNameIn(existing).stream().collect(Collectors.toMap(ProductView::name, Function.identity()))
+                : Map.of();
+        Set<String> seen = new HashSet<>();
+        List<ProductWriteJournal.Entry> accepted = new ArrayList<>(batch.size());
+
+        for (ProductWriteJournal.Entry entry : batch) {
+            String name = entry.product().getName();
+            ProductView row = stored.get(name);
+
+            if (!seen.add(name) || existing.contains(name) && !matches(row, entry.product())) {
+                statuses.put(entry.ticket(), WriteStatus.rejected(entry.ticket(),
+                        "The product name '" + name + "' already exists."));
+            } else if (existing.contains(name)) {
+                statuses.put(entry.ticket(), WriteStatus.landed(entry.ticket(), row.id()));
+            } else {
+                accepted.add(entry);
+            }
+        }
+        return accepted;
+    }
+
+    private static boolean matches(ProductView row, ProductDto product) {
+        return row != null && row.price().equals(product.getPrice());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        writer.interrupt();
+        journal.close();
+    }
+}
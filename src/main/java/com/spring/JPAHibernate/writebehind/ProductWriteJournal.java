@@ -0,0 +1,203 @@
+package com.spring.JPAHibernate.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ProductDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Append-only file of acknowledged product writes ({@code W <ticket> <json>}) and commit marks
+ * ({@code C <ticket>}) for the highest ticket stored in the database. Callers waiting in
+ * {@link #force(long)} share fsyncs: one force covers every record appended before it started.
+ * The file is cut back to the commit mark of the last ticket whenever every appended write has been
+ * committed, and rewritten with only the uncommitted writes once it grows past {@code compactSize}, so it
+ * stays about as large as the queue. Keeping that mark means tickets keep increasing across restarts and a
+ * ticket handed out before one never names a different write after it.
+ */
+public class ProductWriteJournal implements AutoCloseable {
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final long compactSize;
+    private final Object forceLock = new Object();
+    private final NavigableMap<Long, String> uncommitted = new TreeMap<>();
+    private FileChannel channel;
+
+    // Offsets count every byte ever appended, so they keep growing across truncations
+    private long written;
+    private long fileStart;
+    private long uncommittedSize;
+    private volatile long forced;
+    private long lastTicket;
+
+    public ProductWriteJournal(Path path, ObjectMapper mapper, long compactSize) throws IOException {
+        this.path = path;
+        this.mapper = mapper;
+        this.compactSize = compactSize;
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public record Entry(long ticket, ProductDto product) {
+    }
+
+    /**
+     * Writes appended after the last commit mark, in ticket order. Called once before any append.
+     */
+    public synchronized List<Entry> recover() throws IOException {
+        NavigableMap<Long, ProductDto> pending = new TreeMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] record = line.split(" ", 3);
+
+                // A torn last line is a write that was never acknowledged
+                try {
+                    long ticket = Long.parseLong(record[1]);
+                    if (record[0].equals("W")) {
+                        pending.put(ticket, mapper.readValue(record[2], ProductDto.class));
+                        track(ticket, line + "\n");
+                    } else if (record[0].equals("C")) {
+                        pending.headMap(ticket, true).clear();
+                        untrack(ticket);
+                    }
+                    lastTicket = Math.max(lastTicket, ticket);
+                } catch (IOException | RuntimeException e) {
+                    break;
+                }
+            }
+        }
+
+        List<Entry> entries = new ArrayList<>(pending.size());
+        pending.forEach((ticket, product) -> entries.add(new Entry(ticket, product)));
+
+        channel.position(channel.size());
+        written = channel.size();
+        forced = written;
+        return entries;
+    }
+
+    /**
+     * Appends a write under the next ticket and returns the offset to {@link #force(long)} before
+     * acknowledging it.
+     */
+    public synchronized Entry append(ProductDto product) throws IOException {
+        long ticket = ++lastTicket;
+        String record = "W " + ticket + " " + mapper.writeValueAsString(product) + "\n";
+        write(record);
+        track(ticket, record);
+        return new Entry(ticket, product);
+    }
+
+    public synchronized long written() {
+        return written;
+    }
+
+    public void force(long offset) throws IOException {
+        if (forced >= offset) {
+            return;
+        }
+
+        synchronized (forceLock) {
+            if (forced >= offset) {
+                return;
+            }
+
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = written;
+                current = channel;
+            }
+            current.force(false);
+            forced = target;
+        }
+    }
+
+    /**
+     * Records that every write up to {@code ticket} is in the database. Losing the mark in a crash
+     * replays writes that are already stored, which the queue then reports as landed.
+     */
+    public void commit(long ticket) throws IOException {
+        long offset;
+
+        // Compaction replaces the channel, so no force may be running on the old one
+        synchronized (forceLock) {
+            synchronized (this) {
+                untrack(ticket);
+
+                if (uncommitted.isEmpty() || written - fileStart > Math.max(compactSize, 2 * uncommittedSize)) {
+                    compact();
+                    return;
+                }
+                write("C " + ticket + "\n");
+                offset = written;
+            }
+        }
+        force(offset);
+    }
+
+    // Builds the uncommitted writes (or, with none left, the last ticket's commit mark) aside and renames them
+    // over the journal, so a crash leaves either file whole
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Collection<String> records = uncommitted.isEmpty() ? List.of("C " + lastTicket + "\n") : uncommitted.values();
+
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (String record : records) {
+                ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        fileStart = written - channel.size();
+        forced = written;
+    }
+
+    private void track(long ticket, String record) {
+        uncommitted.put(ticket, record);
+        uncommittedSize += record.length();
+    }
+
+    private void untrack(long committed) {
+        NavigableMap<Long, String> done = uncommitted.headMap(committed, true);
+        done.values().forEach(record -> uncommittedSize -= record.length());
+        done.clear();
+    }
+
+    private void write(String record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,5 @@
+-- Run by Hibernate right after it creates the schema from the entity mappings (create-source=metadata-then-script).
+-- Holds what JPA mappings cannot express: a trigram GIN index, so LIKE '%x%' on products.name
+-- (ProductSpecifications.nameContaining and the name-containing endpoint) does not scan the table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
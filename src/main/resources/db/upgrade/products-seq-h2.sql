@@ -0,0 +1,11 @@
+-- One-off upgrade for a populated file-based H2 database whose product ids came from the
+-- hibernate_sequences table (GenerationType.TABLE). Run it once before starting this version with
+-- ddl-auto=validate or none, since ddl-auto=create would recreate the tables empty:
+--   java -cp h2.jar org.h2.tools.RunScript -url jdbc:h2:./homework -script products-seq-h2.sql
+-- INCREMENT BY must match products.id.increment-size. With pooled-lo the first block starts at the
+-- sequence value itself, so the sequence starts right after the highest id in use.
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+
+ALTER SEQUENCE products_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM products);
+
+DROP TABLE IF EXISTS hibernate_sequences;
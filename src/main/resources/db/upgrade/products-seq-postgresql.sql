@@ -0,0 +1,11 @@
+-- One-off upgrade for a populated database whose product ids came from the hibernate_sequences table
+-- (GenerationType.TABLE). Run it once before starting this version with ddl-auto=validate or none, since
+-- ddl-auto=create would recreate the tables empty:
+--   psql -d homework -f products-seq-postgresql.sql
+-- INCREMENT BY must match products.id.increment-size. With pooled-lo the first block starts at the
+-- sequence value itself, so the sequence starts right after the highest id in use.
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+
+SELECT setval('products_seq', COALESCE((SELECT MAX(id) FROM products), 0) + 1, false);
+
+DROP TABLE IF EXISTS hibernate_sequences;
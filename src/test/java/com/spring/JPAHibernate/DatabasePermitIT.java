@@ -0,0 +1,55 @@
+package com.spring.JPAHibernate;
+
+import com.spring.JPAHibernate.datasource.PermitDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:permits;DB_CLOSE_DELAY=-1",
+        "products.db-permits.enabled=true",
+        "products.db-permits.permits=1",
+        "products.db-permits.acquire-timeout=200ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DatabasePermitIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void permits_shouldBeHeldOnlyByRequestsThatBorrowAConnection() throws Exception {
+        PermitDataSource permits = assertInstanceOf(PermitDataSource.class, dataSource);
+
+        try (Connection held = dataSource.getConnection()) {
+            assertEquals(0, permits.availablePermits());
+
+            // Served by the search index alone
+            mockMvc.perform(get("/products/query/autocomplete").param("prefix", "missing"))
+                    .andExpect(status().is2xxSuccessful());
+
+            mockMvc.perform(get("/products/-1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        }
+
+        assertEquals(1, permits.availablePermits());
+        mockMvc.perform(get("/products/-1"))
+                .andExpect(status().isNotFound());
+        assertEquals(1, permits.availablePermits());
+    }
+}
@@ -1,28 +1,55 @@
 package com.spring.JPAHibernate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.config.CacheConfig;
+import com.spring.JPAHibernate.dto.ChunkResult;
 import com.spring.JPAHibernate.dto.PartialProductDto;
 import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductUpdateDto;
 import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
 import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import com.spring.JPAHibernate.service.ProductIngestService;
+import com.spring.JPAHibernate.service.ProductNameLookup;
 import com.spring.JPAHibernate.service.ProductService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +70,18 @@ public class ProductControllerIT {
     @Autowired
     private ObjectMapper mapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Validator validator;
+
     private Product testProduct;
     private static List<ProductDto> dtoList;
 
@@ -143,6 +182,120 @@ public class ProductControllerIT {
         assertEquals(1, products.size());
     }
 
+    @Test
+    void streamProducts_ndjson_shouldCreateAllProducts() throws Exception {
+        String body = mapper.writeValueAsString(dtoList.get(0)) + "\n"
+                + mapper.writeValueAsString(dtoList.get(1)) + "\n"
+                + mapper.writeValueAsString(dtoList.get(2)) + "\n";
+
+        mockMvc.perform(post("/products/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.length()").value(1),
+                        jsonPath("$[0].saved").value(3),
+                        jsonPath("$[0].error").doesNotExist()
+                );
+
+        assertEquals(4, repository.count());
+    }
+
+    @Test
+    void streamProducts_jsonArray_shouldCreateAllProducts() throws Exception {
+        mockMvc.perform(post("/products/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dtoList)))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].received").value(3),
+                        jsonPath("$[0].saved").value(3)
+                );
+
+        assertEquals(4, repository.count());
+    }
+
+    @Test
+    void streamProducts_invalidData_shouldReportFailedChunk() throws Exception {
+        List<ProductDto> invalidList = List.of(
+                new ProductDto("Product 1", 12.5),
+                new ProductDto(testProduct.getName(), 10.4)
+        );
+
+        mockMvc.perform(post("/products/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(invalidList)))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].saved").value(0),
+                        jsonPath("$[0].error").exists()
+                );
+
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void ingest_readFailure_shouldReportCommittedChunks() {
+        ProductIngestService ingestService = new ProductIngestService(service, mapper, validator, 2);
+        byte[] lines = """
+                {"name": "Streamed 1", "price": 1.0}
+                {"name": "Streamed 2", "price": 2.0}
+                {"name": "Streamed 3", "price": 3.0}
+                """.getBytes(StandardCharsets.UTF_8);
+        InputStream brokenBody = new SequenceInputStream(new ByteArrayInputStream(lines), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        List<ChunkResult> results = ingestService.ingest(brokenBody);
+
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(0).getSaved());
+        assertEquals(0, results.get(1).getSaved());
+        assertTrue(results.get(1).getError().contains("Connection reset"));
+        assertEquals(3, repository.count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 500})
+    void saveAll_largeInput_shouldPersistAllProductsInBatches(int batchSize) {
+        List<ProductDto> bulkList = IntStream.range(0, 2_000)
+                .mapToObj(i -> new ProductDto("Bulk product " + i, 1.0 + i))
+                .toList();
+
+        service.saveAll(bulkList, batchSize);
+
+        assertEquals(bulkList.size() + 1, repository.count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"in", "array"})
+    void findExistingNames_shouldReturnOnlyTakenNames(String strategy) {
+        service.saveAll(dtoList);
+        ProductNameLookup lookup = new ProductNameLookup(repository, cacheManager, 2, strategy);
+
+        List<String> existingNames = lookup.findExistingNames(
+                List.of("Product 1", "Missing 1", "Product 3", testProduct.getName(), "Missing 2"));
+
+        assertEquals(Set.of("Product 1", "Product 3", testProduct.getName()), Set.copyOf(existingNames));
+    }
+
+    @Test
+    void findExistingNames_renameMissedByCache_shouldNotReportFreedName() {
+        ProductNameLookup lookup = new ProductNameLookup(repository, new CaffeineCacheManager(CacheConfig.PRODUCT_NAMES), 2, "in");
+        String name = testProduct.getName();
+
+        assertEquals(List.of(name), lookup.findExistingNames(List.of(name)));
+
+        // Renamed without evicting, as when a read-through put lands after the rename's evict
+        testProduct.setName("Renamed product");
+        entityManager.flush();
+
+        assertEquals(List.of(), lookup.findExistingNames(List.of(name)));
+    }
+
     @Test
     void getAllProducts_shouldGet3Products() throws Exception{
         service.saveAll(dtoList);
@@ -154,6 +307,63 @@ public class ProductControllerIT {
                 );
     }
 
+    @Test
+    void getAllProducts_withLimit_shouldPageWithCursor() throws Exception{
+        service.saveAll(dtoList);
+
+        String cursor = mockMvc.perform(get("/products").param("limit", "3"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.length()").value(3),
+                        jsonPath("$[0].name").value(testProduct.getName()),
+                        header().exists(KeysetPaging.NEXT_CURSOR_HEADER)
+                )
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/products").param("limit", "3").param("cursor", cursor))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.length()").value(1),
+                        jsonPath("$[0].name").value("Product 3"),
+                        header().doesNotExist(KeysetPaging.NEXT_CURSOR_HEADER)
+                );
+    }
+
+    @Test
+    void exportProducts_ndjson_shouldWriteOneLinePerProduct() throws Exception{
+        service.saveAll(dtoList);
+
+        String body = mockMvc.perform(get("/products/export").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+
+        assertEquals(4, lines.size());
+        assertEquals(testProduct.getName(), mapper.readTree(lines.getFirst()).get("name").asText());
+        assertEquals("Product 3", mapper.readTree(lines.getLast()).get("name").asText());
+    }
+
+    @Test
+    void exportProducts_csv_shouldWriteHeaderAndRows() throws Exception{
+        String body = mockMvc.perform(get("/products/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+
+        assertEquals(2, lines.size());
+        assertEquals("id,name,price,createdAt,updatedAt", lines.getFirst());
+        assertTrue(lines.getLast().startsWith(testProduct.getId() + "," + testProduct.getName() + ","));
+    }
+
+    @Test
+    void exportProducts_unknownFormat_shouldReturnBadRequest() throws Exception{
+        mockMvc.perform(get("/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getProductById_shouldReturnProduct() throws Exception {
         mockMvc.perform(get("/products/" + testProduct.getId()))
@@ -164,6 +374,54 @@ public class ProductControllerIT {
                 );
     }
 
+    @Test
+    void getProductById_repeatedReads_shouldHitSecondLevelCache() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            statistics.clear();
+
+            mockMvc.perform(get("/products/" + testProduct.getId())).andExpect(status().isOk());
+            mockMvc.perform(get("/products/" + testProduct.getId())).andExpect(status().isOk());
+
+            assertEquals(2, statistics.getSecondLevelCacheHitCount());
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            service.deleteById(testProduct.getId());
+            TestTransaction.start();
+        }
+    }
+
+    @Test
+    void getProductById_afterUpdate_shouldServeNewStateFromSecondLevelCache() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            mockMvc.perform(get("/products/" + testProduct.getId())).andExpect(status().isOk());
+
+            PartialProductDto dto = new PartialProductDto();
+            dto.setPrice(99.0);
+
+            mockMvc.perform(patch("/products/" + testProduct.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+
+            statistics.clear();
+            mockMvc.perform(get("/products/" + testProduct.getId()))
+                    .andExpect(jsonPath("$.price").value(99.0));
+            assertEquals(1, statistics.getSecondLevelCacheHitCount());
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            service.deleteById(testProduct.getId());
+            TestTransaction.start();
+        }
+    }
+
     @Test
     void getProductById_shouldReturnNotFound() throws Exception{
         mockMvc.perform(get("/products/" + 99))
@@ -194,8 +452,89 @@ public class ProductControllerIT {
     }
 
     @Test
-    void updateProduct_invalidData_shouldThrowException() {
+    void updateProduct_invalidData_shouldThrowException() throws Exception {
+        service.saveAll(dtoList);
+        ProductDto dto = new ProductDto(dtoList.get(1).getName(), 99.0);
+
+        mockMvc.perform(put("/products/" + testProduct.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dto)))
+                .andExpectAll(
+                        status().isConflict(),
+                        jsonPath("$.error").exists()
+                );
+    }
+
+    @Test
+    void upsertProduct_newName_shouldCreateProduct() throws Exception {
+        ProductDto dto = new ProductDto("Upserted product", 15.0);
+
+        mockMvc.perform(put("/products/upsert")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dto)))
+                .andExpectAll(
+                        status().isOk(),
+                        // Taken from the same pooled block as the test product, not from a fresh sequence call
+                        jsonPath("$.id").value(testProduct.getId() + 1),
+                        jsonPath("$.name").value(dto.getName()),
+                        jsonPath("$.price").value(dto.getPrice())
+                );
+
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void upsertProduct_existingName_shouldUpdatePrice() throws Exception {
+        ProductDto dto = new ProductDto(testProduct.getName(), 99.9);
+
+        mockMvc.perform(put("/products/upsert")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dto)))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.id").value(testProduct.getId()),
+                        jsonPath("$.price").value(dto.getPrice()),
+                        jsonPath("$.version").value(1)
+                );
+
+        assertEquals(1, repository.count());
+        assertEquals(dto.getPrice(), service.findById(testProduct.getId()).getPrice());
+    }
+
+    @Test
+    void conditionalRequests_shouldUseVersionAsETag() throws Exception{
+        entityManager.flush();
+        String path = "/products/" + testProduct.getId();
+
+        mockMvc.perform(get(path))
+                .andExpectAll(status().isOk(), header().string("ETag", "\"0\""), jsonPath("$.version").value(0));
+        mockMvc.perform(get(path).header("If-None-Match", "\"0\""))
+                .andExpectAll(status().isNotModified(), header().string("ETag", "\"0\""), content().string(""));
+
+        PartialProductDto dto = new PartialProductDto();
+        dto.setPrice(20.0);
+        String body = mapper.writeValueAsString(dto);
+
+        mockMvc.perform(patch(path).header("If-Match", "\"3\"").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpectAll(status().isPreconditionFailed(), jsonPath("$.error").exists());
+        mockMvc.perform(patch(path).header("If-Match", "W/\"0\"").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch(path).header("If-Match", "\"0\"").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpectAll(status().isOk(), header().string("ETag", "\"1\""), jsonPath("$.price").value(20.0));
+
+        mockMvc.perform(get(path).header("If-None-Match", "\"0\""))
+                .andExpectAll(status().isOk(), header().string("ETag", "\"1\""));
 
+        mockMvc.perform(delete(path).header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        assertTrue(repository.existsById(testProduct.getId()));
+
+        mockMvc.perform(delete(path).header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+        assertFalse(repository.existsById(testProduct.getId()));
     }
 
     @Test
@@ -251,6 +590,93 @@ public class ProductControllerIT {
                 );
     }
 
+    @Test
+    void updateProducts_validData_shouldUpdateAllInOneRequest() throws Exception{
+        Product other = repository.save(mapper.convertValue(dtoList.get(1), Product.class));
+
+        ProductUpdateDto rename = new ProductUpdateDto();
+        rename.setId(testProduct.getId());
+        rename.setName("Renamed product");
+
+        ProductUpdateDto reprice = new ProductUpdateDto();
+        reprice.setId(other.getId());
+        reprice.setPrice(99.9);
+
+        mockMvc.perform(patch("/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(rename, reprice))))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.length()").value(2),
+                        jsonPath("$[0].name").value("Renamed product"),
+                        jsonPath("$[0].price").value(testProduct.getPrice()),
+                        jsonPath("$[1].name").value(other.getName()),
+                        jsonPath("$[1].price").value(99.9)
+                );
+
+        entityManager.clear();
+
+        assertEquals("Renamed product", repository.findById(testProduct.getId()).orElseThrow().getName());
+        assertEquals(99.9, repository.findById(other.getId()).orElseThrow().getPrice());
+    }
+
+    @Test
+    void updateProducts_conflictsOrMissingIds_shouldRejectWholeRequest() throws Exception{
+        Product other = repository.save(mapper.convertValue(dtoList.get(1), Product.class));
+
+        ProductUpdateDto takenName = new ProductUpdateDto();
+        takenName.setId(testProduct.getId());
+        takenName.setName(other.getName());
+
+        mockMvc.perform(patch("/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(takenName))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+
+        ProductUpdateDto missing = new ProductUpdateDto();
+        missing.setId(-1L);
+        missing.setPrice(10.0);
+
+        mockMvc.perform(patch("/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(missing))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals("Test product", repository.findById(testProduct.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void repriceProducts_shouldUpdateOnlyPricesInRange() throws Exception{
+        Product expensive = repository.save(mapper.convertValue(dtoList.get(1), Product.class));
+
+        mockMvc.perform(patch("/products/bulk/price")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "20")
+                        .param("percent", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+
+        assertEquals(13.75, repository.findById(testProduct.getId()).orElseThrow().getPrice());
+        assertEquals(50.3, repository.findById(expensive.getId()).orElseThrow().getPrice());
+
+        mockMvc.perform(patch("/products/bulk/price")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "20")
+                        .param("percent", "-100"))
+                .andExpect(status().isBadRequest());
+
+        for (String notFinite : List.of("NaN", "Infinity", "-Infinity")) {
+            mockMvc.perform(patch("/products/bulk/price")
+                            .param("minPrice", "10")
+                            .param("maxPrice", "20")
+                            .param("percent", notFinite))
+                    .andExpect(status().isBadRequest());
+        }
+        assertEquals(13.75, repository.findById(testProduct.getId()).orElseThrow().getPrice());
+    }
+
     @Test
     void deleteById_shouldDeleteProduct() throws Exception {
         mockMvc.perform(delete("/products/" + testProduct.getId()))
@@ -259,10 +685,117 @@ public class ProductControllerIT {
         assertThrows(NoSuchElementException.class,() -> service.findById(testProduct.getId()));
     }
 
+    @Test
+    void deleteProducts_byIds_shouldDeleteWithOneStatementAndReturnCount() throws Exception {
+        Product other = repository.save(mapper.convertValue(dtoList.get(1), Product.class));
+        Product kept = repository.save(mapper.convertValue(dtoList.get(2), Product.class));
+
+        mockMvc.perform(delete("/products/bulk")
+                        .param("ids", testProduct.getId() + "," + other.getId() + ",-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        assertFalse(repository.existsById(testProduct.getId()));
+        assertFalse(repository.existsById(other.getId()));
+        assertTrue(repository.existsById(kept.getId()));
+    }
+
+    @Test
+    void deleteProductsMatching_shouldDeleteOnlyMatchingRows() throws Exception {
+        Product expensive = repository.save(mapper.convertValue(dtoList.get(1), Product.class));
+        Product cheap = repository.save(mapper.convertValue(dtoList.get(2), Product.class));
+
+        mockMvc.perform(delete("/products/bulk/criteria")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "20")
+                        .param("createdBefore", LocalDateTime.now().plusMinutes(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        assertFalse(repository.existsById(testProduct.getId()));
+        assertFalse(repository.existsById(cheap.getId()));
+        assertTrue(repository.existsById(expensive.getId()));
+
+        mockMvc.perform(delete("/products/bulk/criteria"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void getChanges_shouldPageUpdatesAndTombstonesAfterWatermark() throws Exception {
+        Product other = new Product();
+        other.setName("Other product");
+        other.setPrice(30.0);
+        other = repository.save(other);
+        entityManager.flush();
+
+        LocalDateTime watermark = testProduct.getUpdatedAt().minusNanos(1000);
+
+        String firstPage = mockMvc.perform(get("/products/changes")
+                        .param("since", watermark.toString())
+                        .param("limit", "1"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.changes.length()").value(1),
+                        jsonPath("$.changes[0].id").value(testProduct.getId()),
+                        jsonPath("$.changes[0].deleted").value(false),
+                        jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = mapper.readTree(firstPage).get("cursor").asText();
+
+        service.deleteById(testProduct.getId());
+        entityManager.flush();
+
+        String secondPage = mockMvc.perform(get("/products/changes").param("cursor", cursor))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.changes.length()").value(2),
+                        jsonPath("$.changes[0].id").value(other.getId()),
+                        jsonPath("$.changes[1].id").value(testProduct.getId()),
+                        jsonPath("$.changes[1].deleted").value(true),
+                        jsonPath("$.changes[1].name").doesNotExist(),
+                        jsonPath("$.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String watermarkCursor = mapper.readTree(secondPage).get("cursor").asText();
+
+        mockMvc.perform(get("/products/changes").param("cursor", watermarkCursor))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.changes.length()").value(0),
+                        jsonPath("$.cursor").value(watermarkCursor));
+
+        mockMvc.perform(get("/products/changes").param("since", LocalDateTime.now().minusYears(1).toString()))
+                .andExpectAll(status().isGone(), jsonPath("$.error").exists());
+    }
+
     @Test
     void deleteById_shouldReturnBadRequest() throws Exception {
         mockMvc.perform(delete("/products/" + 99))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").exists());
     }
+
+    @Test
+    void readEndpoint_shouldRecordPerRequestQueryMetrics() throws Exception {
+        double statementsBefore = requestSummary("products.request.sql.statements").totalAmount();
+        double rowsBefore = requestSummary("products.request.rows").totalAmount();
+        long requestsBefore = requestSummary("products.request.rows").count();
+
+        mockMvc.perform(get("/products").param("limit", "3"))
+                .andExpect(status().isOk());
+
+        assertEquals(requestsBefore + 1, requestSummary("products.request.rows").count());
+        assertTrue(requestSummary("products.request.sql.statements").totalAmount() > statementsBefore);
+        assertTrue(requestSummary("products.request.rows").totalAmount() > rowsBefore);
+        assertNotNull(meterRegistry.find("products.repository.rows").tag("method", "findAllBy").summary());
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations").tag("method", "findAllBy").timer());
+        assertNotNull(meterRegistry.find("hibernate.statements").functionCounter());
+    }
+
+    private DistributionSummary requestSummary(String name) {
+        return DistributionSummary.builder(name)
+                .tags("method", "GET", "uri", "/products", "status", "200")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
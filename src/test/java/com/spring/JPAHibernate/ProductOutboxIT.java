@@ -0,0 +1,235 @@
+package com.spring.JPAHibernate;
+
+import com.spring.JPAHibernate.dto.ProductChange;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductEvent;
+import com.spring.JPAHibernate.outbox.InMemoryProductEventSink;
+import com.spring.JPAHibernate.outbox.ProductEventSink;
+import com.spring.JPAHibernate.outbox.ProductOutboxRelay;
+import com.spring.JPAHibernate.repository.ProductOutboxRepository;
+import com.spring.JPAHibernate.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "products.outbox.memory.subscriber-capacity=2",
+        "products.bulk-update.max-size=4"
+})
+@ActiveProfiles("test")
+public class ProductOutboxIT {
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductOutboxRelay relay;
+
+    @Autowired
+    private ProductOutboxRepository outbox;
+
+    @Autowired
+    private InMemoryProductEventSink sink;
+
+    @Autowired
+    private FailingSink failingSink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        relay.relay();
+    }
+
+    @AfterEach
+    void tearDown() {
+        failingSink.failing.set(false);
+        service.deleteAllById(created);
+        created.clear();
+        relay.relay();
+    }
+
+    @Test
+    void mutations_shouldBeRelayedInCommitOrder() throws InterruptedException {
+        BlockingQueue<ProductEvent> delivered = new LinkedBlockingQueue<>();
+        Consumer<List<ProductEvent>> subscriber = delivered::addAll;
+        sink.subscribe(subscriber);
+
+        long id = service.save(new ProductDto("Outbox product", 10.0)).getId();
+        created.add(id);
+        service.updateProduct(id, new ProductDto("Outbox product", 12.0));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.save(new ProductDto("Rolled back outbox product", 1.0));
+            status.setRollbackOnly();
+        });
+
+        service.deleteById(id);
+        created.clear();
+
+        assertEquals(3, outbox.count());
+        assertEquals(3, relay.relay());
+        assertEquals(0, outbox.count());
+
+        List<ProductEvent> received = new ArrayList<>();
+        while (received.size() < 3) {
+            ProductEvent event = delivered.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "events were not delivered");
+            received.add(event);
+        }
+        sink.unsubscribe(subscriber);
+
+        List<ProductChange> changes = received.stream().flatMap(event -> event.changes().stream()).toList();
+        assertEquals(List.of(id, id, id), changes.stream().map(ProductChange::id).toList());
+        assertEquals(List.of(10.0, 12.0), changes.subList(0, 2).stream().map(ProductChange::price).toList());
+        assertTrue(changes.get(2).deleted());
+        assertTrue(received.get(0).id() < received.get(1).id() && received.get(1).id() < received.get(2).id());
+        assertEquals(received, sink.recent().subList(sink.recent().size() - 3, sink.recent().size()));
+    }
+
+    @Test
+    void bulkStatements_shouldListTheRowsTheyChanged() throws InterruptedException {
+        long cheap = service.save(new ProductDto("Bulk outbox product cheap", 10.0)).getId();
+        long expensive = service.save(new ProductDto("Bulk outbox product expensive", 50.0)).getId();
+        created.addAll(List.of(cheap, expensive));
+        relay.relay();
+
+        BlockingQueue<ProductEvent> delivered = new LinkedBlockingQueue<>();
+        Consumer<List<ProductEvent>> subscriber = delivered::addAll;
+        sink.subscribe(subscriber);
+
+        try {
+            assertEquals(1, service.repriceBetween(5.0, 15.0, 50));
+            assertEquals(1, service.deleteMatching(40.0, 60.0, null));
+            assertEquals(2, relay.relay());
+
+            ProductEvent repriced = delivered.poll(5, TimeUnit.SECONDS);
+            ProductEvent deleted = delivered.poll(5, TimeUnit.SECONDS);
+            assertNotNull(deleted, "events were not delivered");
+
+            assertEquals(List.of(cheap), repriced.changes().stream().map(ProductChange::id).toList());
+            assertEquals(15.0, repriced.changes().getFirst().price());
+            assertEquals(List.of(expensive), deleted.changes().stream().map(ProductChange::id).toList());
+            assertTrue(deleted.changes().getFirst().deleted());
+        } finally {
+            sink.unsubscribe(subscriber);
+        }
+    }
+
+    @Test
+    void deleteAllById_shouldOnlyListTheRowsThatExisted() throws InterruptedException {
+        long id = service.save(new ProductDto("Deleted outbox product", 10.0)).getId();
+        created.add(id);
+        relay.relay();
+
+        assertEquals(0, service.deleteAllById(List.of(-1L)));
+        assertEquals(0, outbox.count());
+
+        BlockingQueue<ProductEvent> delivered = new LinkedBlockingQueue<>();
+        Consumer<List<ProductEvent>> subscriber = delivered::addAll;
+        sink.subscribe(subscriber);
+
+        try {
+            assertEquals(1, service.deleteAllById(List.of(id, -1L)));
+            created.clear();
+            assertEquals(1, relay.relay());
+
+            ProductEvent deleted = delivered.poll(5, TimeUnit.SECONDS);
+            assertNotNull(deleted, "events were not delivered");
+            assertEquals(List.of(id), deleted.changes().stream().map(ProductChange::id).toList());
+        } finally {
+            sink.unsubscribe(subscriber);
+        }
+    }
+
+    @Test
+    void bulkStatements_shouldBeSplitIntoRowsOfAtMostMaxSizeChanges() {
+        for (int i = 0; i < 5; i++) {
+            service.save(new ProductDto("Chunked outbox product " + i, 70.0 + i));
+        }
+        relay.relay();
+
+        assertEquals(5, service.repriceBetween(70.0, 74.0, 10));
+        assertEquals(2, outbox.count());
+        assertEquals(5, service.deleteMatching(70.0, 90.0, null));
+        assertEquals(4, outbox.count());
+    }
+
+    @Test
+    void slowSubscriber_shouldBeDroppedWithoutHoldingUpTheRelay() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch dropped = new CountDownLatch(1);
+        Consumer<List<ProductEvent>> stuck = events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        sink.subscribe(stuck, dropped::countDown);
+
+        try {
+            // One batch in delivery, two queued, and the fourth overflows the subscriber's queue
+            for (int i = 0; i < 4; i++) {
+                created.add(service.save(new ProductDto("Slow subscriber product " + i, 1.0 + i)).getId());
+                assertEquals(1, relay.relay());
+            }
+            assertTrue(dropped.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void failedPublish_shouldLeaveEventsForRedelivery() {
+        created.add(service.save(new ProductDto("Redelivered product", 5.0)).getId());
+
+        failingSink.failing.set(true);
+        assertThrows(IllegalStateException.class, () -> relay.relay());
+        assertEquals(1, outbox.count());
+
+        failingSink.failing.set(false);
+        assertEquals(1, relay.relay());
+        assertEquals(0, outbox.count());
+    }
+
+    @TestConfiguration
+    static class Sinks {
+        @Bean
+        FailingSink failingSink() {
+            return new FailingSink();
+        }
+    }
+
+    static class FailingSink implements ProductEventSink {
+        final AtomicBoolean failing = new AtomicBoolean();
+
+        @Override
+        public void publish(List<ProductEvent> events) {
+            if (failing.get()) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+        }
+    }
+}
@@ -2,9 +2,19 @@ package com.spring.JPAHibernate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductView;
 import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.event.ProductChangeEvent;
+import com.spring.JPAHibernate.metrics.RequestQueryStats;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
 import com.spring.JPAHibernate.repository.ProductJpaRepository;
+import com.spring.JPAHibernate.search.ProductSearchIndex;
 import com.spring.JPAHibernate.service.ProductQueryService;
+import com.spring.JPAHibernate.service.ProductSyncService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +25,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import org.springframework.data.domain.Window;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +54,20 @@ public class ProductQueryControllerIT {
     @Autowired
     private ObjectMapper mapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private KeysetPaging paging;
+
+    @Autowired
+    private ProductSyncService syncService;
+
+    private List<Product> testProducts;
+
     @BeforeEach
     void setUp() {
         List<ProductDto> dtoList = List.of(
@@ -47,7 +76,7 @@ public class ProductQueryControllerIT {
                 new ProductDto("Product 3", 11.6)
         );
 
-        List<Product> testProducts = dtoList.stream()
+        testProducts = dtoList.stream()
                 .map(dto -> mapper.convertValue(dto, Product.class))
                 .toList();
 
@@ -177,6 +206,87 @@ public class ProductQueryControllerIT {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getProductsSorted_withLimit_shouldPageWithCursor() throws Exception{
+        String cursor = mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "price")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Product 3"))
+                .andExpect(jsonPath("$[1].name").value("Product 1"))
+                .andExpect(header().exists(KeysetPaging.NEXT_CURSOR_HEADER))
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "price")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Product 2"))
+                .andExpect(header().doesNotExist(KeysetPaging.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getProductsWithPriceGreaterThan_withLimit_shouldPageWithCursor() throws Exception {
+        String cursor = mockMvc.perform(get("/products/query/price-greater-than")
+                        .param("price", "10.0")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Product 1"))
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/products/query/price-greater-than")
+                        .param("price", "10.0")
+                        .param("limit", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Product 2"));
+    }
+
+    @Test
+    void getProductsSorted_cursorForOtherOrdering_shouldReturnBadRequest() throws Exception{
+        String cursor = mockMvc.perform(get("/products/query/price-greater-than")
+                        .param("price", "10.0")
+                        .param("limit", "1"))
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "createdAt")
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "price")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductsSorted_cursorForOtherDirection_shouldReturnBadRequest() throws Exception{
+        String ascendingCursor = mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "price")
+                        .param("limit", "1"))
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "price")
+                        .param("ascending", "false")
+                        .param("cursor", ascendingCursor))
+                .andExpect(status().isBadRequest());
+
+        String descendingCursor = mockMvc.perform(get("/products/query")
+                        .param("sort", "-price")
+                        .param("limit", "1"))
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/products/query")
+                        .param("sort", "price")
+                        .param("cursor", descendingCursor))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getProductsByNameContaining_shouldReturnProducts() throws Exception {
         String text = "2";
@@ -195,4 +305,215 @@ public class ProductQueryControllerIT {
                         .param("name", text))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void getProducts_withCombinedFilters_shouldPageInRequestedOrder() throws Exception {
+        String nextCursor = mockMvc.perform(get("/products/query")
+                        .param("minPrice", "11.6")
+                        .param("maxPrice", "40")
+                        .param("name", "duct")
+                        .param("sort", "-price")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Product 2"))
+                .andExpect(jsonPath("$[1].name").value("Product 1"))
+                .andReturn().getResponse().getHeader(KeysetPaging.NEXT_CURSOR_HEADER);
+
+        assertNotNull(nextCursor);
+
+        mockMvc.perform(get("/products/query")
+                        .param("minPrice", "11.6")
+                        .param("maxPrice", "40")
+                        .param("name", "duct")
+                        .param("sort", "-price")
+                        .param("limit", "2")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Product 3"))
+                .andExpect(header().doesNotExist(KeysetPaging.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/products/query")
+                        .param("maxPrice", "12")
+                        .param("createdFrom", LocalDateTime.now().minusHours(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Product 3"));
+    }
+
+    @Test
+    void getProducts_withInvalidFilter_shouldReturnBadRequestOrNoContent() throws Exception {
+        mockMvc.perform(get("/products/query")
+                        .param("name", "%"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/products/query")
+                        .param("sort", "-description"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/products/query")
+                        .param("minPrice", "20")
+                        .param("maxPrice", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void readEndpoints_shouldReturnProjectionsWithoutLoadingEntities() throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/products/query/sorted")
+                        .param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].name").value("Product 3"))
+                .andExpect(jsonPath("$[0].createdAt").exists());
+
+        mockMvc.perform(get("/products/query")
+                        .param("minPrice", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        Window<ProductView> views = service.findByPriceBetween(10.0, 40.0, null, null);
+
+        assertEquals(3, views.size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void searchProducts_shouldReturnRankedMatchesFromIndex() throws Exception {
+        // The fixture is never committed, so feed the index the way the after-commit listener would
+        testProducts.forEach(product -> searchIndex.put(product.getId(), product.getName()));
+        searchIndex.put(-1L, "Spare product 2");
+
+        try {
+            mockMvc.perform(get("/products/query/search")
+                            .param("q", "DUCT 2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].name").value("Product 2"));
+
+            assertEquals(List.of(testProducts.get(1).getId(), -1L), searchIndex.search("product 2", 10));
+            assertEquals(List.of(testProducts.getFirst().getId()), searchIndex.search("t 1", 10));
+            // Shorter than a trigram: same ranking (prefix, word start, shorter name), capped at the limit
+            assertEquals(List.of(testProducts.get(1).getId(), -1L), searchIndex.search("2", 10));
+            assertEquals(List.of(testProducts.getFirst().getId(), testProducts.get(1).getId()), searchIndex.search("pr", 2));
+
+            mockMvc.perform(get("/products/query/search")
+                            .param("q", "Test"))
+                    .andExpect(status().isNoContent());
+        } finally {
+            testProducts.forEach(product -> searchIndex.remove(product.getId()));
+            searchIndex.remove(-1L);
+        }
+    }
+
+    @Test
+    void searchIndex_shouldSkipChangesThatCannotTouchNames() {
+        LocalDateTime now = LocalDateTime.now();
+        Product renamed = new Product(-1L, "Renamed entry", 1.0, now, now, 1L);
+        ProductView repriced = new ProductView(-1L, "Renamed entry", 1.0, now, now, 1L);
+        searchIndex.put(-1L, "Indexed only");
+
+        try {
+            searchIndex.onProductChange(ProductChangeEvent.repriced(List.of(repriced)));
+            assertEquals(List.of(-1L), searchIndex.search("indexed only", 10));
+
+            searchIndex.onProductChange(ProductChangeEvent.saved(List.of(renamed)));
+            assertEquals(List.of(), searchIndex.search("indexed only", 10));
+            assertEquals(List.of(-1L), searchIndex.search("renamed entry", 10));
+        } finally {
+            searchIndex.remove(-1L);
+        }
+    }
+
+    @Test
+    void autocompleteProductNames_shouldReturnNamesWithPrefix() throws Exception {
+        testProducts.forEach(product -> searchIndex.put(product.getId(), product.getName()));
+
+        try {
+            mockMvc.perform(get("/products/query/autocomplete")
+                            .param("prefix", "prod")
+                            .param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0]").value("Product 1"))
+                    .andExpect(jsonPath("$[1]").value("Product 2"));
+
+            mockMvc.perform(get("/products/query/autocomplete")
+                            .param("prefix", "duct"))
+                    .andExpect(status().isNoContent());
+        } finally {
+            testProducts.forEach(product -> searchIndex.remove(product.getId()));
+        }
+    }
+
+    // The plans are taken for the SQL the finders actually send, captured by the statement inspector
+    @Test
+    void priceQueries_shouldUseIndexRangeScan() {
+        entityManager.flush();
+
+        List<String> greaterThan = RequestQueryStats.captureStatements(() -> service.findByPriceGreaterThan(12.0, null, null));
+        List<String> between = RequestQueryStats.captureStatements(() -> service.findByPriceBetween(10.0, 15.0, null, null));
+
+        assertEquals(1, greaterThan.size());
+        assertEquals(1, between.size());
+
+        String greaterThanPlan = explain(greaterThan.getFirst(), 12.0, 101);
+        String betweenPlan = explain(between.getFirst(), 10.0, 15.0, 101);
+
+        assertTrue(greaterThanPlan.contains("IDX_PRODUCTS_PRICE_ID: PRICE >"), greaterThanPlan);
+        assertTrue(betweenPlan.contains("IDX_PRODUCTS_PRICE_ID: PRICE >="), betweenPlan);
+    }
+
+    @Test
+    void sortedQueries_shouldReadInIndexOrder() {
+        entityManager.flush();
+        Window<ProductView> firstPage = service.findAllOrderBy("price", true, null, 1);
+        ProductView last = firstPage.getContent().getLast();
+        String cursor = paging.nextCursor(firstPage);
+
+        List<String> byPrice = RequestQueryStats.captureStatements(() -> service.findAllOrderBy("price", true, cursor, null));
+        List<String> byCreatedAt = RequestQueryStats.captureStatements(() -> service.findAllOrderBy("createdAt", false, null, null));
+
+        assertEquals(1, byPrice.size());
+        assertEquals(1, byCreatedAt.size());
+
+        String pricePlan = explain(byPrice.getFirst(), last.price(), last.price(), last.id(), 101);
+        String createdAtPlan = explain(byCreatedAt.getFirst(), 101);
+
+        assertTrue(pricePlan.contains("IDX_PRODUCTS_PRICE_ID") && pricePlan.contains("index sorted"), pricePlan);
+        assertTrue(createdAtPlan.contains("IDX_PRODUCTS_CREATED_AT_ID") && createdAtPlan.contains("index sorted"), createdAtPlan);
+    }
+
+    @Test
+    void syncQuery_shouldReadInIndexOrder() {
+        entityManager.flush();
+
+        List<String> statements = RequestQueryStats.captureStatements(() -> syncService.changes(null, null, null));
+        String productsQuery = statements.stream().filter(sql -> !sql.contains("product_tombstones")).findFirst().orElseThrow();
+
+        String plan = explain(productsQuery, LocalDateTime.now(), 101);
+
+        assertTrue(plan.contains("IDX_PRODUCTS_UPDATED_AT_ID") && plan.contains("index sorted"), plan);
+    }
+
+    // Plan of a captured statement, with its parameters bound in order
+    private String explain(String sql, Object... parameters) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
 }
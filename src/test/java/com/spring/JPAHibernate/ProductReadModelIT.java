@@ -0,0 +1,134 @@
+package com.spring.JPAHibernate;
+
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.ProductView;
+import com.spring.JPAHibernate.pagination.KeysetPaging;
+import com.spring.JPAHibernate.readmodel.ProductReadModel;
+import com.spring.JPAHibernate.service.ProductQueryService;
+import com.spring.JPAHibernate.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readmodel;DB_CLOSE_DELAY=-1",
+        "products.read-model.enabled=true"
+})
+@ActiveProfiles("test")
+public class ProductReadModelIT {
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductQueryService queryService;
+
+    @Autowired
+    private ProductReadModel readModel;
+
+    @Autowired
+    private KeysetPaging paging;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (double price : new double[]{30.0, 10.0, 20.0, 40.0}) {
+            created.add(service.save(new ProductDto("Read model product " + price, price)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.deleteAllById(created);
+        created.clear();
+    }
+
+    @Test
+    void queries_shouldBeAnsweredFromMemoryWithoutConnections() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long connectionsBefore = statistics.getConnectCount();
+
+        Window<ProductView> firstPage = queryService.findByPriceGreaterThan(15.0, null, 2);
+        Window<ProductView> secondPage = queryService.findByPriceGreaterThan(15.0, paging.nextCursor(firstPage), 2);
+
+        assertEquals(List.of(created.get(0), created.get(2)), firstPage.map(ProductView::id).getContent());
+        assertEquals(List.of(created.get(3)), secondPage.map(ProductView::id).getContent());
+        assertFalse(secondPage.hasNext());
+
+        assertEquals(List.of(30.0, 20.0),
+                queryService.findByPriceBetween(20.0, 30.0, null, null).map(ProductView::price).getContent());
+
+        Window<ProductView> mostExpensive = queryService.findAllOrderBy("price", false, null, 3);
+        Window<ProductView> cheapest = queryService.findAllOrderBy("price", false, paging.nextCursor(mostExpensive), 3);
+        assertEquals(List.of(40.0, 30.0, 20.0), mostExpensive.map(ProductView::price).getContent());
+        assertEquals(List.of(10.0), cheapest.map(ProductView::price).getContent());
+
+        Window<ProductView> newest = queryService.findAllOrderBy("createdAt", false, null, 1);
+        assertEquals(List.of(created.get(3)), newest.map(ProductView::id).getContent());
+
+        assertEquals(connectionsBefore, statistics.getConnectCount());
+    }
+
+    @Test
+    void writes_shouldBecomeVisibleOnlyOnCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int size = readModel.size();
+
+        transaction.executeWithoutResult(status -> {
+            service.save(new ProductDto("Rolled back product", 25.0));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(size, readModel.size());
+        assertEquals(List.of(30.0, 20.0),
+                queryService.findByPriceBetween(20.0, 30.0, null, null).map(ProductView::price).getContent());
+
+        service.updateProduct(created.get(1), new ProductDto("Read model product 10.0", 25.0));
+        assertEquals(List.of(30.0, 25.0, 20.0),
+                queryService.findByPriceBetween(20.0, 30.0, null, null).map(ProductView::price).getContent());
+
+        service.repriceBetween(20.0, 30.0, 100);
+        assertEquals(List.of(created.get(0), created.get(1), created.get(2), created.get(3)),
+                queryService.findByPriceGreaterThan(39.0, null, null).map(ProductView::id).getContent());
+        assertTrue(readModel.isReady());
+    }
+
+    @Test
+    void lateChanges_shouldNotRevertNewerStateOrResurrectDeletedProducts() {
+        ProductView original = queryService.findByPriceBetween(10.0, 10.0, null, null).getContent().get(0);
+        service.updateProduct(original.id(), new ProductDto(original.name(), 15.0));
+
+        readModel.put(original);
+        assertEquals(List.of(15.0),
+                queryService.findByPriceBetween(10.0, 15.0, null, null).map(ProductView::price).getContent());
+
+        ProductView deleted = queryService.findByPriceBetween(40.0, 40.0, null, null).getContent().get(0);
+        service.deleteById(deleted.id());
+        created.remove(deleted.id());
+
+        readModel.put(deleted);
+        readModel.put(new ProductView(deleted.id(), deleted.name(), deleted.price(), deleted.createdAt(),
+                deleted.updatedAt(), deleted.version() + 1));
+        assertTrue(queryService.findByPriceGreaterThan(35.0, null, null).getContent().isEmpty());
+    }
+}
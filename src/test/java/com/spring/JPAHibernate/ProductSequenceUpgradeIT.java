@@ -0,0 +1,42 @@
+package com.spring.JPAHibernate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductSequenceUpgradeIT {
+    @Test
+    void upgradeScript_shouldContinueIdsAfterTheTableGeneratedOnes() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:sequence-upgrade", "sa", "");
+             Statement statement = connection.createStatement()) {
+            // The layout GenerationType.TABLE left behind
+            statement.execute("create table products (id bigint primary key, name varchar(255) not null)");
+            statement.execute("create table hibernate_sequences (sequence_name varchar(255) primary key, next_val bigint)");
+            statement.execute("insert into hibernate_sequences values ('default', 151)");
+            statement.execute("insert into products select x, 'Product ' || x from system_range(1, 120)");
+
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/upgrade/products-seq-h2.sql"));
+
+            assertEquals(121, nextValue(statement));
+            assertEquals(171, nextValue(statement));
+
+            try (ResultSet tables = connection.getMetaData().getTables(null, null, "HIBERNATE_SEQUENCES", null)) {
+                assertFalse(tables.next());
+            }
+        }
+    }
+
+    private static long nextValue(Statement statement) throws Exception {
+        try (ResultSet value = statement.executeQuery("select next value for products_seq")) {
+            value.next();
+            return value.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.spring.JPAHibernate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.dto.WriteStatus;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.repository.ProductCrudRepository;
+import com.spring.JPAHibernate.repository.ProductJpaRepository;
+import com.spring.JPAHibernate.service.ProductNameLookup;
+import com.spring.JPAHibernate.service.ProductService;
+import com.spring.JPAHibernate.writebehind.ProductWriteBehindQueue;
+import com.spring.JPAHibernate.writebehind.ProductWriteJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1",
+        "products.write-behind.enabled=true",
+        "products.write-behind.journal=${java.io.tmpdir}/products-write-behind-it.journal"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ProductWriteBehindIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private ProductWriteBehindQueue writeBehind;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductCrudRepository repository;
+
+    @Autowired
+    private ProductJpaRepository jpaRepository;
+
+    @Autowired
+    private ProductNameLookup nameLookup;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        service.deleteAllById(created);
+        created.clear();
+    }
+
+    @Test
+    void createProduct_shouldAcknowledgeAndLandAsynchronously() throws Exception {
+        String body = mapper.writeValueAsString(new ProductDto("Write-behind product", 12.0));
+
+        String response = mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        long ticket = mapper.readValue(response, WriteStatus.class).ticket();
+
+        WriteStatus landed = awaitOutcome(ticket);
+        assertEquals(WriteStatus.State.LANDED, landed.state());
+        created.add(landed.productId());
+        assertEquals("Write-behind product", repository.findById(landed.productId()).orElseThrow().getName());
+
+        mockMvc.perform(get("/products/writes/" + ticket))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("LANDED"))
+                .andExpect(jsonPath("$.productId").value(landed.productId()));
+
+        // Same name again: acknowledged, then rejected by the writer
+        long duplicate = writeBehind.enqueue(new ProductDto("Write-behind product", 13.0)).ticket();
+        WriteStatus rejected = awaitOutcome(duplicate);
+        assertEquals(WriteStatus.State.REJECTED, rejected.state());
+        assertTrue(rejected.error().contains("already exists"));
+
+        mockMvc.perform(get("/products/writes/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void writer_shouldRejectProductsTheDatabaseRefusesAndKeepGoing() throws Exception {
+        long tooLong = writeBehind.enqueue(new ProductDto("x".repeat(256), 5.0)).ticket();
+        long valid = writeBehind.enqueue(new ProductDto("Write-behind after refused product", 6.0)).ticket();
+
+        WriteStatus rejected = awaitOutcome(tooLong);
+        assertEquals(WriteStatus.State.REJECTED, rejected.state());
+        assertTrue(rejected.error().startsWith("Unable to store the product"));
+
+        WriteStatus landed = awaitOutcome(valid);
+        assertEquals(WriteStatus.State.LANDED, landed.state());
+        created.add(landed.productId());
+
+        mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ProductDto("x".repeat(256), 5.0))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void journal_shouldReplayOnlyWritesAfterTheLastCommitMark(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("products.journal");
+
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            assertTrue(journal.recover().isEmpty());
+            journal.append(new ProductDto("Committed product", 1.0));
+            journal.append(new ProductDto("Landed before crash", 2.0));
+            journal.commit(1);
+            journal.append(new ProductDto("Lost in crash", 3.0));
+            journal.force(journal.written());
+        }
+
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            List<ProductWriteJournal.Entry> replay = journal.recover();
+
+            assertEquals(List.of(2L, 3L), replay.stream().map(ProductWriteJournal.Entry::ticket).toList());
+            assertEquals("Lost in crash", replay.getLast().product().getName());
+            assertEquals(4, journal.append(new ProductDto("After restart", 4.0)).ticket());
+        }
+    }
+
+    @Test
+    void journal_allCommitted_shouldKeepCountingTicketsAfterRestart(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("products.journal");
+
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            journal.recover();
+            journal.append(new ProductDto("First product", 1.0));
+            journal.append(new ProductDto("Second product", 2.0));
+            journal.commit(2);
+
+            assertEquals(List.of("C 2"), Files.readAllLines(path));
+        }
+
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            assertTrue(journal.recover().isEmpty());
+            assertEquals(3, journal.append(new ProductDto("After restart", 3.0)).ticket());
+        }
+    }
+
+    @Test
+    void replay_shouldReportWritesThatLandedBeforeTheirCommitMarkAsLanded(@TempDir Path directory) throws Exception {
+        Product landed = service.save(new ProductDto("Landed before crash", 7.0));
+        Product taken = service.save(new ProductDto("Taken by another write", 8.0));
+        created.addAll(List.of(landed.getId(), taken.getId()));
+
+        Path path = directory.resolve("products.journal");
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            journal.recover();
+            journal.append(new ProductDto("Landed before crash", 7.0));
+            journal.append(new ProductDto("Taken by another write", 9.0));
+            journal.append(new ProductDto("Never stored", 10.0));
+            journal.force(journal.written());
+        }
+
+        ProductWriteBehindQueue replaying = new ProductWriteBehindQueue(service, nameLookup, jpaRepository, mapper,
+                100, 10, path, DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        replaying.start();
+
+        try {
+            assertEquals(WriteStatus.landed(1, landed.getId()), awaitOutcome(replaying, 1));
+            assertEquals(WriteStatus.State.REJECTED, awaitOutcome(replaying, 2).state());
+
+            WriteStatus stored = awaitOutcome(replaying, 3);
+            assertEquals(WriteStatus.State.LANDED, stored.state());
+            created.add(stored.productId());
+        } finally {
+            replaying.stop();
+        }
+    }
+
+    @Test
+    void journal_shouldCompactCommittedWritesUnderLoad(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("products.journal");
+
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            journal.recover();
+            for (int i = 1; i <= 100; i++) {
+                journal.append(new ProductDto("Busy product " + i, (double) i));
+                // The queue never runs empty, so the journal is never simply truncated
+                if (i % 10 == 0) {
+                    journal.commit(i - 5);
+                }
+            }
+            journal.force(journal.written());
+
+            assertTrue(Files.size(path) < 2048, "journal was not compacted: " + Files.size(path) + " bytes");
+        }
+
+        try (ProductWriteJournal journal = new ProductWriteJournal(path, mapper, 1024)) {
+            List<ProductWriteJournal.Entry> replay = journal.recover();
+
+            assertEquals(List.of(96L, 97L, 98L, 99L, 100L), replay.stream().map(ProductWriteJournal.Entry::ticket).toList());
+            assertEquals(101, journal.append(new ProductDto("After restart", 1.0)).ticket());
+        }
+    }
+
+    private WriteStatus awaitOutcome(long ticket) throws InterruptedException {
+        return awaitOutcome(writeBehind, ticket);
+    }
+
+    private static WriteStatus awaitOutcome(ProductWriteBehindQueue queue, long ticket) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            WriteStatus status = queue.status(ticket).orElseThrow();
+            if (status.state() != WriteStatus.State.PENDING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Write " + ticket + " did not land");
+        return null;
+    }
+}
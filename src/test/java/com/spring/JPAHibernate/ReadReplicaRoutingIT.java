@@ -0,0 +1,158 @@
+package com.spring.JPAHibernate;
+
+import com.spring.JPAHibernate.datasource.ReplicaDataSource;
+import com.spring.JPAHibernate.dto.ProductDto;
+import com.spring.JPAHibernate.entity.Product;
+import com.spring.JPAHibernate.service.ProductQueryService;
+import com.spring.JPAHibernate.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Both "replicas" point at the primary's in-memory database, standing in for streaming replicas
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "products.datasource.routing.enabled=true",
+        "products.datasource.routing.replicas[0].url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "products.datasource.routing.replicas[0].username=sa",
+        "products.datasource.routing.replicas[1].url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "products.datasource.routing.replicas[1].username=sa",
+        "products.datasource.routing.read-your-writes-window=1s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadReplicaRoutingIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductQueryService queryService;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(service::deleteById);
+    }
+
+    @Test
+    void readOnlyTransactions_shouldBeBalancedOverReplicasAfterReadYourWritesWindow() throws Exception {
+        Product product = service.save(new ProductDto("Routed product", 20.0));
+        created.add(product.getId());
+
+        Map<String, Long> before = replicaDataSource.connectionCounts();
+        List<Product> justWritten = queryService.findByPriceGreaterThan(10.0);
+        Map<String, Long> pinned = replicaDataSource.connectionCounts();
+
+        assertEquals(List.of("Routed product"), justWritten.stream().map(Product::getName).toList());
+        assertEquals(before.get("primary") + 1, pinned.get("primary"));
+
+        Thread.sleep(1100);
+
+        // Distinct parameters so the query cache cannot answer without a connection
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(1, queryService.findByPriceGreaterThan(10.0 + i).size());
+        }
+        Map<String, Long> after = replicaDataSource.connectionCounts();
+
+        assertEquals(pinned.get("primary"), after.get("primary"));
+        assertEquals(pinned.get("replica-0") + 2, after.get("replica-0"));
+        assertEquals(pinned.get("replica-1") + 2, after.get("replica-1"));
+        assertTrue(primaryDataSource.getHikariPoolMXBean().getTotalConnections() > 0);
+    }
+
+    @Test
+    void pagedQueryEndpoints_withoutReadModel_shouldReadFromReplicas() throws Exception {
+        created.add(service.save(new ProductDto("Paged routed product", 60.0)).getId());
+        Thread.sleep(1100);
+
+        Map<String, Long> before = replicaDataSource.connectionCounts();
+
+        mockMvc.perform(get("/products/query/price-greater-than").param("price", "59.0").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Paged routed product"));
+        mockMvc.perform(get("/products/query/price-between").param("minPrice", "59.0").param("maxPrice", "61.0").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Paged routed product"));
+        mockMvc.perform(get("/products/query/sorted").param("sortBy", "price").param("ascending", "false").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Paged routed product"));
+
+        Map<String, Long> after = replicaDataSource.connectionCounts();
+
+        assertEquals(before.get("primary"), after.get("primary"));
+        assertEquals(before.get("replica-0") + before.get("replica-1") + 3, after.get("replica-0") + after.get("replica-1"));
+    }
+
+    @Test
+    void readYourWrites_shouldPinOnlyTheWritingClient() {
+        asClient("writer", () -> created.add(service.save(new ProductDto("Pinned product", 30.0)).getId()));
+
+        Map<String, Long> before = replicaDataSource.connectionCounts();
+        asClient("reader", () -> queryService.findByPriceGreaterThan(25.0));
+        Map<String, Long> afterOtherClient = replicaDataSource.connectionCounts();
+        asClient("writer", () -> queryService.findByPriceGreaterThan(26.0));
+        Map<String, Long> afterWriter = replicaDataSource.connectionCounts();
+
+        assertEquals(before.get("primary"), afterOtherClient.get("primary"));
+        assertEquals(before.get("replica-0") + before.get("replica-1") + 1,
+                afterOtherClient.get("replica-0") + afterOtherClient.get("replica-1"));
+        assertEquals(afterOtherClient.get("primary") + 1, afterWriter.get("primary"));
+    }
+
+    @Test
+    @DirtiesContext
+    void unhealthyReplica_shouldBeTakenOutOfRotation() {
+        replicaDataSource.healthyReplicas().getFirst().close();
+        replicaDataSource.checkHealth();
+
+        assertEquals(List.of("replica-1"), replicaDataSource.healthyReplicas().stream().map(HikariDataSource::getPoolName).toList());
+
+        Map<String, Long> before = replicaDataSource.connectionCounts();
+        queryService.findByPriceGreaterThan(1.0);
+        queryService.findByPriceGreaterThan(2.0);
+        Map<String, Long> after = replicaDataSource.connectionCounts();
+
+        assertEquals(before.get("replica-0"), after.get("replica-0"));
+        assertEquals(before.get("replica-1") + 2, after.get("replica-1"));
+    }
+
+    private static void asClient(String client, Runnable action) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Client-Id", client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            action.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}